@@ -0,0 +1,51 @@
+package de.melanx.skyblockbuilder.benchmark;
+
+import com.electronwill.nightconfig.core.CommentedConfig;
+import de.melanx.skyblockbuilder.ConfigHandler;
+import de.melanx.skyblockbuilder.util.Team;
+import de.melanx.skyblockbuilder.world.data.SkyblockSavedData;
+import net.minecraft.util.registry.Bootstrap;
+import net.minecraftforge.fml.loading.FMLPaths;
+
+import java.nio.file.Paths;
+import java.util.UUID;
+
+/*
+ * Minecraft and the mod config need to be initialized once per benchmark fork,
+ * there is no mod loader running in these JVMs.
+ */
+public class BenchmarkSetup {
+
+    private static boolean initialized = false;
+
+    public static synchronized void init() {
+        if (initialized) {
+            return;
+        }
+
+        FMLPaths.loadAbsolutePaths(Paths.get("").toAbsolutePath());
+        Bootstrap.register();
+
+        CommentedConfig config = CommentedConfig.inMemory();
+        config.set("world.surface", true);
+        ConfigHandler.COMMON_CONFIG.setConfig(config);
+
+        initialized = true;
+    }
+
+    // Saved data without a world, only usable for team bookkeeping
+    public static SkyblockSavedData createData(int teams, UUID[] players) {
+        SkyblockSavedData data = new SkyblockSavedData(null);
+        data.create("spawn");
+        for (int i = 0; i < teams; i++) {
+            Team team = data.create("team" + i).getRight();
+            UUID player = new UUID(i, i);
+            team.addPlayer(player);
+            if (players != null && i < players.length) {
+                players[i] = player;
+            }
+        }
+
+        return data;
+    }
+}
@@ -0,0 +1,45 @@
+package de.melanx.skyblockbuilder.benchmark;
+
+import de.melanx.skyblockbuilder.world.dimensions.overworld.SkyblockBiomeProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BiomeFoldBenchmark {
+
+    private final int[] coords = new int[4096];
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        for (int i = 0; i < this.coords.length; i++) {
+            // noise biome coordinates are block coordinates >> 2
+            this.coords[i] = random.nextInt(1 << 22) - (1 << 21);
+        }
+    }
+
+    @Benchmark
+    public int modulo() {
+        int sum = 0;
+        for (int coord : this.coords) {
+            sum += ((((coord << 2) - 4096) % 8192) + 8192) % 8192;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int foldCoordinate() {
+        int sum = 0;
+        for (int coord : this.coords) {
+            sum += SkyblockBiomeProvider.foldCoordinate(coord);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,58 @@
+package de.melanx.skyblockbuilder.benchmark;
+
+import de.melanx.skyblockbuilder.util.Team;
+import de.melanx.skyblockbuilder.world.data.SkyblockSavedData;
+import net.minecraft.nbt.CompoundNBT;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SavedDataBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    public int teams;
+
+    private SkyblockSavedData data;
+    private UUID[] lookups;
+    private CompoundNBT nbt;
+    private int next;
+
+    @Setup
+    public void setup() {
+        BenchmarkSetup.init();
+        UUID[] players = new UUID[this.teams];
+        this.data = BenchmarkSetup.createData(this.teams, players);
+        this.nbt = this.data.write(new CompoundNBT());
+
+        Random random = new Random(42);
+        this.lookups = new UUID[1024];
+        for (int i = 0; i < this.lookups.length; i++) {
+            this.lookups[i] = players[random.nextInt(players.length)];
+        }
+    }
+
+    @Benchmark
+    public Team getTeamFromPlayer() {
+        return this.data.getTeamFromPlayer(this.lookups[this.next++ & 1023]);
+    }
+
+    @Benchmark
+    public CompoundNBT write() {
+        return this.data.write(new CompoundNBT());
+    }
+
+    @Benchmark
+    public SkyblockSavedData read() {
+        SkyblockSavedData data = new SkyblockSavedData(null);
+        data.read(this.nbt);
+        return data;
+    }
+}
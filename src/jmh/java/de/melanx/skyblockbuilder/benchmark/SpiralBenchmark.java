@@ -0,0 +1,34 @@
+package de.melanx.skyblockbuilder.benchmark;
+
+import de.melanx.skyblockbuilder.util.Spiral;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpiralBenchmark {
+
+    @Param({"100", "10000"})
+    public int index;
+
+    // What restoring a spiral position without the saved state costs
+    @Benchmark
+    public int[] next() {
+        Spiral spiral = new Spiral();
+        int[] pos = new int[2];
+        for (int i = 0; i < this.index; i++) {
+            pos = spiral.next();
+        }
+        return pos;
+    }
+
+    @Benchmark
+    public int[] positionAt() {
+        return Spiral.positionAt(this.index);
+    }
+}
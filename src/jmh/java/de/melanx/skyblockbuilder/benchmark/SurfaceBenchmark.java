@@ -0,0 +1,41 @@
+package de.melanx.skyblockbuilder.benchmark;
+
+import de.melanx.skyblockbuilder.world.dimensions.overworld.SkyblockOverworldChunkGenerator;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.registry.WorldGenRegistries;
+import net.minecraft.world.biome.Biomes;
+import net.minecraft.world.biome.provider.SingleBiomeProvider;
+import net.minecraft.world.chunk.ChunkPrimer;
+import net.minecraft.world.chunk.UpgradeData;
+import net.minecraft.world.gen.DimensionSettings;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SurfaceBenchmark {
+
+    private SkyblockOverworldChunkGenerator generator;
+    private int next;
+
+    @Setup
+    public void setup() {
+        BenchmarkSetup.init();
+        SingleBiomeProvider provider = new SingleBiomeProvider(WorldGenRegistries.BIOME.getOrThrow(Biomes.PLAINS));
+        this.generator = new SkyblockOverworldChunkGenerator(provider, 0, () -> WorldGenRegistries.NOISE_SETTINGS.getOrThrow(DimensionSettings.field_242734_c));
+    }
+
+    // Surface generation with the default layers (bedrock, 2 dirt, grass block)
+    @Benchmark
+    public ChunkPrimer generateSurface() {
+        ChunkPrimer chunk = new ChunkPrimer(new ChunkPos(this.next++, 0), UpgradeData.EMPTY);
+        //noinspection ConstantConditions
+        this.generator.generateSurface(null, chunk);
+        return chunk;
+    }
+}
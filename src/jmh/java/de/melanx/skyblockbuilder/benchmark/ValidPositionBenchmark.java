@@ -0,0 +1,75 @@
+package de.melanx.skyblockbuilder.benchmark;
+
+import com.google.common.collect.ImmutableSet;
+import de.melanx.skyblockbuilder.util.Team;
+import de.melanx.skyblockbuilder.util.WorldUtil;
+import de.melanx.skyblockbuilder.world.IslandPos;
+import de.melanx.skyblockbuilder.world.data.SkyblockSavedData;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.fluid.Fluids;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IBlockReader;
+import org.openjdk.jmh.annotations.*;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidPositionBenchmark {
+
+    // valid: the spawns stand on the island, invalid: all spawns are in the air and the spiral search runs
+    @Param({"valid", "invalid"})
+    public String spawns;
+
+    private final IBlockReader world = new IslandReader();
+    private Team team;
+
+    @Setup
+    public void setup() {
+        BenchmarkSetup.init();
+        this.team = new Team(new SkyblockSavedData(null), new IslandPos(0, 0));
+        int y = this.spawns.equals("valid") ? 65 : 100;
+        this.team.setPossibleSpawns(ImmutableSet.of(new BlockPos(22, y, 22), new BlockPos(24, y, 24), new BlockPos(26, y, 26)));
+    }
+
+    @Benchmark
+    public BlockPos validPosition() {
+        return WorldUtil.validPosition(this.world, this.team);
+    }
+
+    // A 10x10 stone island from y 60 to 64, next to the center column used by the spiral search
+    private static class IslandReader implements IBlockReader {
+
+        private static final BlockState STONE = Blocks.STONE.getDefaultState();
+        private static final BlockState AIR = Blocks.AIR.getDefaultState();
+
+        @Nullable
+        @Override
+        public TileEntity getTileEntity(@Nonnull BlockPos pos) {
+            return null;
+        }
+
+        @Nonnull
+        @Override
+        public BlockState getBlockState(BlockPos pos) {
+            int x = pos.getX();
+            int z = pos.getZ();
+            return x >= 20 && x < 30 && z >= 20 && z < 30 && pos.getY() >= 60 && pos.getY() <= 64 ? STONE : AIR;
+        }
+
+        @Nonnull
+        @Override
+        public FluidState getFluidState(@Nonnull BlockPos pos) {
+            return Fluids.EMPTY.getDefaultState();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package de.melanx.skyblockbuilder.loadtest;
+
+import com.electronwill.nightconfig.core.CommentedConfig;
+import de.melanx.skyblockbuilder.ConfigHandler;
+import de.melanx.skyblockbuilder.util.Team;
+import de.melanx.skyblockbuilder.world.data.SkyblockSavedData;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.util.registry.Bootstrap;
+import net.minecraftforge.fml.loading.FMLPaths;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.*;
+
+/*
+ * Drives the team bookkeeping of SkyblockSavedData without a world: the saved data is created
+ * with a null world, so islands are only allocated and never placed, and nobody gets teleported.
+ *
+ * Arguments (all optional): teams=<n> players=<n> ops=<n> save-interval=<n> seed=<n>
+ */
+public class LoadTest {
+
+    private final Random random;
+    private final int teamCount;
+    private final int playerCount;
+    private final int operations;
+    private final int saveInterval;
+
+    private final SkyblockSavedData data = new SkyblockSavedData(null);
+    private final List<UUID> players = new ArrayList<>();
+    private final List<Team> teams = new ArrayList<>();
+    private final Map<String, OperationStats> stats = new LinkedHashMap<>();
+    private long savedBytes;
+    private int saves;
+    private int chatRecipients;
+    private int nextTeam;
+
+    public LoadTest(Map<String, String> args) {
+        this.random = new Random(Long.parseLong(args.getOrDefault("seed", "42")));
+        this.teamCount = Integer.parseInt(args.getOrDefault("teams", "5000"));
+        this.playerCount = Integer.parseInt(args.getOrDefault("players", "20000"));
+        this.operations = Integer.parseInt(args.getOrDefault("ops", "200000"));
+        this.saveInterval = Integer.parseInt(args.getOrDefault("save-interval", "10000"));
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> arguments = new HashMap<>();
+        for (String arg : args) {
+            String[] split = arg.split("=", 2);
+            if (split.length == 2) {
+                arguments.put(split[0], split[1]);
+            }
+        }
+
+        setup();
+        new LoadTest(arguments).run();
+    }
+
+    private static void setup() {
+        FMLPaths.loadAbsolutePaths(Paths.get("").toAbsolutePath());
+        Bootstrap.register();
+
+        CommentedConfig config = CommentedConfig.inMemory();
+        ConfigHandler.COMMON_CONFIG.setConfig(config);
+    }
+
+    public void run() throws IOException {
+        this.data.create("spawn");
+
+        System.out.println("Logging in " + this.playerCount + " players for the first time...");
+        for (int i = 0; i < this.playerCount; i++) {
+            UUID player = new UUID(this.random.nextLong(), this.random.nextLong());
+            this.players.add(player);
+            this.measure("first-login", () -> this.data.trackLogin(player, true));
+        }
+
+        System.out.println("Creating " + this.teamCount + " teams...");
+        for (int i = 0; i < this.teamCount; i++) {
+            this.createTeam();
+        }
+
+        System.out.println("Running " + this.operations + " mixed operations...");
+        for (int i = 1; i <= this.operations; i++) {
+            int roll = this.random.nextInt(100);
+            if (roll < 30) {
+                this.measure("login", () -> this.data.trackLogin(this.randomPlayer(), false));
+            } else if (roll < 70) {
+                this.chat();
+            } else if (roll < 80) {
+                this.invite();
+            } else if (roll < 90) {
+                this.accept();
+            } else if (roll < 95) {
+                this.measure("leave", () -> this.data.removePlayerFromTeam(this.randomPlayer()));
+            } else {
+                this.createTeam();
+            }
+
+            if (i % this.saveInterval == 0) {
+                this.save();
+            }
+        }
+        this.save();
+
+        System.out.println();
+        System.out.println(OperationStats.header());
+        for (OperationStats operation : this.stats.values()) {
+            System.out.println(operation.report());
+        }
+        System.out.println();
+        System.out.println("Teams: " + this.data.getTeams().size() + ", pending invites: " + this.data.getInviteCount());
+        System.out.println("Average save size: " + (this.saves == 0 ? 0 : this.savedBytes / this.saves) + " bytes");
+        System.out.println("Average chat recipients: " + (this.stats.containsKey("chat") ? this.chatRecipients / (double) this.stats.get("chat").getCount() : 0));
+    }
+
+    private void createTeam() {
+        UUID player = this.randomPlayer();
+        String name = "loadtest" + this.nextTeam++;
+        this.measure("create-team", () -> {
+            if (this.data.hasPlayerTeam(player)) {
+                return;
+            }
+
+            Team team = this.data.allocateTeam(name);
+            if (team != null) {
+                this.data.addPlayerToTeam(team, player);
+                this.teams.add(team);
+            }
+        });
+    }
+
+    // Same lookups as the chat listener, the recipients are only counted
+    private void chat() {
+        UUID player = this.randomPlayer();
+        this.measure("chat", () -> {
+            Team team = this.data.getTeamFromPlayer(player);
+            if (team != null && team.isInTeamChat(player)) {
+                this.chatRecipients += team.getPlayers().size();
+            }
+        });
+    }
+
+    private void invite() {
+        if (this.teams.isEmpty()) {
+            return;
+        }
+
+        Team team = this.teams.get(this.random.nextInt(this.teams.size()));
+        UUID player = this.randomPlayer();
+        this.measure("invite", () -> {
+            if (this.data.getTeam(team.getName()) == team && !this.data.hasPlayerTeam(player)) {
+                this.data.addInvite(team, player);
+            }
+        });
+    }
+
+    private void accept() {
+        UUID player = this.randomPlayer();
+        this.measure("accept", () -> {
+            List<Team> invites = this.data.getInvites(player);
+            if (invites != null && !invites.isEmpty() && !this.data.hasPlayerTeam(player)) {
+                this.data.joinInvitedTeam(invites.get(0), player);
+            }
+        });
+    }
+
+    private void save() throws IOException {
+        OperationStats operation = this.stats.computeIfAbsent("save", OperationStats::new);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        operation.begin();
+        CompressedStreamTools.writeCompressed(this.data.write(new CompoundNBT()), out);
+        operation.end();
+        this.savedBytes += out.size();
+        this.saves++;
+    }
+
+    private UUID randomPlayer() {
+        return this.players.get(this.random.nextInt(this.players.size()));
+    }
+
+    private void measure(String name, Runnable action) {
+        OperationStats operation = this.stats.computeIfAbsent(name, OperationStats::new);
+        operation.begin();
+        action.run();
+        operation.end();
+    }
+}
@@ -0,0 +1,77 @@
+package de.melanx.skyblockbuilder.loadtest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Locale;
+
+// Latencies and allocated bytes of one kind of operation
+public class OperationStats {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean ALLOCATIONS = THREADS instanceof com.sun.management.ThreadMXBean
+            && ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemorySupported();
+
+    private final String name;
+    private long[] latencies = new long[1024];
+    private int count;
+    private long totalNanos;
+    private long allocated;
+
+    private long start;
+    private long startAllocated;
+
+    public OperationStats(String name) {
+        this.name = name;
+    }
+
+    public void begin() {
+        this.startAllocated = allocatedBytes();
+        this.start = System.nanoTime();
+    }
+
+    public void end() {
+        long nanos = System.nanoTime() - this.start;
+        this.allocated += allocatedBytes() - this.startAllocated;
+        this.totalNanos += nanos;
+        if (this.count == this.latencies.length) {
+            this.latencies = Arrays.copyOf(this.latencies, this.count * 2);
+        }
+        this.latencies[this.count++] = nanos;
+    }
+
+    public int getCount() {
+        return this.count;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public static String header() {
+        return String.format(Locale.ROOT, "%-12s %10s %12s %10s %10s %10s %12s", "operation", "count", "ops/s", "p50 us", "p99 us", "max us", "bytes/op");
+    }
+
+    public String report() {
+        if (this.count == 0) {
+            return String.format(Locale.ROOT, "%-12s %10d", this.name, 0);
+        }
+
+        long[] sorted = Arrays.copyOf(this.latencies, this.count);
+        Arrays.sort(sorted);
+        return String.format(Locale.ROOT, "%-12s %10d %12.0f %10.1f %10.1f %10.1f %12s", this.name, this.count,
+                this.count / (this.totalNanos / 1.0E9),
+                percentile(sorted, 0.5) / 1000d,
+                percentile(sorted, 0.99) / 1000d,
+                sorted[sorted.length - 1] / 1000d,
+                ALLOCATIONS ? Long.toString(this.allocated / this.count) : "n/a");
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private static long allocatedBytes() {
+        return ALLOCATIONS ? ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+}
@@ -1,9 +1,9 @@
 package de.melanx.skyblockbuilder;
 
+import com.google.common.collect.ImmutableList;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import de.melanx.skyblockbuilder.util.WorldUtil;
 import net.minecraft.inventory.EquipmentSlotType;
 import net.minecraft.item.ItemStack;
@@ -13,7 +13,6 @@ import net.minecraftforge.common.crafting.CraftingHelper;
 import net.minecraftforge.fml.ModLoadingContext;
 import net.minecraftforge.fml.config.ModConfig;
 import net.minecraftforge.fml.loading.FMLPaths;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.io.*;
@@ -28,18 +27,21 @@ import java.util.Set;
 public class ConfigHandler {
     
     public static final ForgeConfigSpec COMMON_CONFIG;
-    public static final List<Pair<EquipmentSlotType, ItemStack>> STARTER_ITEMS = new ArrayList<>();
     private static final ForgeConfigSpec.Builder COMMON_BUILDER = new ForgeConfigSpec.Builder();
     private static final Path MOD_CONFIG = FMLPaths.CONFIGDIR.get().resolve(SkyblockBuilder.MODID);
     private static final Path SCHEMATIC_FILE = MOD_CONFIG.resolve("template.nbt");
     private static final Path SPAWNS_FILE = MOD_CONFIG.resolve("spawns.json");
     private static final Path ITEMS_FILE = MOD_CONFIG.resolve("starter_item.json");
+    private static final Path TEMPLATES_DIR = MOD_CONFIG.resolve("templates");
 
     static {
         init(COMMON_BUILDER);
         COMMON_CONFIG = COMMON_BUILDER.build();
     }
 
+    // Replaced as a whole on reload
+    private static volatile List<Pair<EquipmentSlotType, ItemStack>> starterItems = ImmutableList.of();
+
     public static ForgeConfigSpec.BooleanValue overworldStructures;
     public static ForgeConfigSpec.BooleanValue strongholdOnly;
 
@@ -57,6 +59,8 @@ public class ConfigHandler {
     public static ForgeConfigSpec.BooleanValue singleBiome;
     public static ForgeConfigSpec.ConfigValue<String> biome;
     public static ForgeConfigSpec.IntValue seaHeight;
+    public static ForgeConfigSpec.IntValue islandRadius;
+    public static ForgeConfigSpec.BooleanValue islandBorder;
 
     public static ForgeConfigSpec.EnumValue<WorldUtil.Directions> direction;
     public static ForgeConfigSpec.IntValue generationHeight;
@@ -73,6 +77,17 @@ public class ConfigHandler {
     public static ForgeConfigSpec.BooleanValue allowVisits;
     public static ForgeConfigSpec.BooleanValue spawnTeleport;
 
+    public static ForgeConfigSpec.IntValue bulkTickBudget;
+    public static ForgeConfigSpec.IntValue placementTickBudget;
+    public static ForgeConfigSpec.IntValue hibernationDelay;
+    public static ForgeConfigSpec.IntValue entityLimit;
+    public static ForgeConfigSpec.IntValue tileEntityLimit;
+    public static ForgeConfigSpec.BooleanValue islandMobCaps;
+    public static ForgeConfigSpec.BooleanValue profilerEnabled;
+    public static ForgeConfigSpec.IntValue profilerWindow;
+    public static ForgeConfigSpec.IntValue metricsInterval;
+    public static ForgeConfigSpec.ConfigValue<String> metricsFile;
+
     public static void init(ForgeConfigSpec.Builder builder) {
         overworldStructures = builder.comment("Should structures like end portal or villages be generated in overworld? [default: false]")
                 .define("dimensions.overworld.structures", false);
@@ -103,6 +118,12 @@ public class ConfigHandler {
                 .define("world.surface-settings", "minecraft:bedrock,2*minecraft:dirt,minecraft:grass_block", String.class::isInstance);
         seaHeight = builder.comment("Sea level in world [default: 63]")
                 .defineInRange("world.sea-level", 63, 0, 256);
+        islandRadius = builder.comment("Radius in blocks around the island center which belongs to an island. [default: 128]",
+                "Everything within this radius is removed when an island is reset.")
+                .defineInRange("world.island-radius", 128, 16, 4095);
+        islandBorder = builder.comment("Should each island have its own world border at the island radius? [default: false]",
+                "Players in survival or adventure mode can't leave the border, chunks outside of all islands stay empty.")
+                .define("world.island-border", false);
         singleBiome = builder.comment("Should only one biome be generated? [default: false]")
                 .define("world.single-biome.enabled", false);
         biome = builder.comment("Specifies the biome for the whole world")
@@ -136,6 +157,31 @@ public class ConfigHandler {
                 .define("utility.teleports.allow-visits", true);
         spawnTeleport = builder.comment("Should players be able to teleport to spawn? [default: true]")
                 .define("utility.teleports.spawn", true);
+
+        bulkTickBudget = builder.comment("Milliseconds per tick operator bulk operations (e.g. clearing all empty teams) may use. [default: 10]")
+                .defineInRange("performance.bulk-tick-budget", 10, 1, 50);
+        placementTickBudget = builder.comment("Milliseconds per tick used to paste new islands chunk by chunk. [default: 5]",
+                "A chunk that was started is always finished, so large templates may exceed this a bit.")
+                .defineInRange("performance.placement-tick-budget", 5, 1, 50);
+        hibernationDelay = builder.comment("Minutes after which islands without online members or visitors hibernate. 0 disables hibernation. [default: 0]",
+                "Hibernating islands release their forced chunks until a member logs in or someone visits them.")
+                .defineInRange("performance.hibernation-delay", 0, 0, 10080);
+        entityLimit = builder.comment("Loaded entities per island above which no more mobs spawn or breed there. 0 disables the limit. [default: 0]")
+                .defineInRange("performance.limits.entities", 0, 0, Integer.MAX_VALUE);
+        tileEntityLimit = builder.comment("Loaded tile entities per island above which players can't place more of them there. 0 disables the limit. [default: 0]")
+                .defineInRange("performance.limits.tile-entities", 0, 0, Integer.MAX_VALUE);
+        islandMobCaps = builder.comment("Should each island have its own mob cap, like a single player world? [default: false]",
+                "Mobs spawn naturally on an island only while it's below its cap. This is an extra cap, the mob cap of the whole world still applies.")
+                .define("performance.limits.island-mob-caps", false);
+        profilerEnabled = builder.comment("Should the tick time per island be profiled from server start? [default: false]",
+                "Can also be started with '/skyblock manage profile start'.")
+                .define("performance.profiler.enabled", false);
+        profilerWindow = builder.comment("Seconds of tick time shown by the island profiler. [default: 60]")
+                .defineInRange("performance.profiler.window", 60, 5, 3600);
+        metricsInterval = builder.comment("Seconds between writing the metrics to a Prometheus text file. 0 disables the export. [default: 0]")
+                .defineInRange("performance.metrics.export-interval", 0, 0, 3600);
+        metricsFile = builder.comment("The metrics file, relative to the server directory.")
+                .define("performance.metrics.export-file", "debug/skyblockbuilder.prom", String.class::isInstance);
     }
 
     public static void generateDefaultFiles() {
@@ -143,12 +189,13 @@ public class ConfigHandler {
             if (!Files.isDirectory(MOD_CONFIG)) {
                 Files.createDirectories(MOD_CONFIG);
             }
+            if (!Files.isDirectory(TEMPLATES_DIR)) {
+                Files.createDirectories(TEMPLATES_DIR);
+            }
 
             copyTemplateFile();
             generateSpawnsFile();
             generateStarterItemsFile();
-
-            loadStarterItems();
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -197,14 +244,22 @@ public class ConfigHandler {
         w.close();
     }
 
-    private static void loadStarterItems() throws IOException {
-        STARTER_ITEMS.clear();
+    public static List<Pair<EquipmentSlotType, ItemStack>> getStarterItems() {
+        return starterItems;
+    }
 
-        File spawns = new File(ITEMS_FILE.toUri());
-        JsonParser parser = new JsonParser();
+    public static void setStarterItems(List<Pair<EquipmentSlotType, ItemStack>> items) {
+        starterItems = ImmutableList.copyOf(items);
+    }
 
-        String s = IOUtils.toString(new InputStreamReader(new FileInputStream(spawns)));
-        JsonObject json = JSONUtils.fromJson(s);
+    // Only reads the file, the result is applied with setStarterItems
+    public static List<Pair<EquipmentSlotType, ItemStack>> readStarterItems() throws IOException {
+        List<Pair<EquipmentSlotType, ItemStack>> starterItems = new ArrayList<>();
+
+        JsonObject json;
+        try (Reader reader = Files.newBufferedReader(ITEMS_FILE)) {
+            json = JSONUtils.fromJson(reader);
+        }
 
         if (json.has("items")) {
             JsonArray items = json.getAsJsonArray("items");
@@ -226,9 +281,11 @@ public class ConfigHandler {
                         usedTypes.add(slot);
                     }
                 }
-                STARTER_ITEMS.add(Pair.of(slot, stack));
+                starterItems.add(Pair.of(slot, stack));
             }
         }
+
+        return starterItems;
     }
 
     public static void setup() {
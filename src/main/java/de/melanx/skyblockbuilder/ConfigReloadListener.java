@@ -0,0 +1,59 @@
+package de.melanx.skyblockbuilder;
+
+import de.melanx.skyblockbuilder.template.IslandTemplate;
+import de.melanx.skyblockbuilder.util.TemplateLoader;
+import net.minecraft.client.resources.ReloadListener;
+import net.minecraft.inventory.EquipmentSlotType;
+import net.minecraft.item.ItemStack;
+import net.minecraft.profiler.IProfiler;
+import net.minecraft.resources.IResourceManager;
+import org.apache.commons.lang3.tuple.Pair;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Reads the templates and starter items on the reload executor, including decompressing and
+ * preprocessing the templates. The server thread only swaps in the finished result.
+ */
+public class ConfigReloadListener extends ReloadListener<ConfigReloadListener.Result> {
+
+    @Nonnull
+    @Override
+    protected Result prepare(@Nonnull IResourceManager manager, @Nonnull IProfiler profiler) {
+        profiler.startTick();
+        try {
+            ConfigHandler.generateDefaultFiles();
+            profiler.startSection("templates");
+            Map<String, IslandTemplate> templates = TemplateLoader.readTemplates();
+            profiler.endStartSection("starterItems");
+            List<Pair<EquipmentSlotType, ItemStack>> starterItems = ConfigHandler.readStarterItems();
+            profiler.endSection();
+            return new Result(templates, starterItems);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            profiler.endTick();
+        }
+    }
+
+    @Override
+    protected void apply(@Nonnull Result result, @Nonnull IResourceManager manager, @Nonnull IProfiler profiler) {
+        TemplateLoader.setTemplates(result.templates);
+        ConfigHandler.setStarterItems(result.starterItems);
+    }
+
+    public static class Result {
+
+        private final Map<String, IslandTemplate> templates;
+        private final List<Pair<EquipmentSlotType, ItemStack>> starterItems;
+
+        private Result(Map<String, IslandTemplate> templates, List<Pair<EquipmentSlotType, ItemStack>> starterItems) {
+            this.templates = templates;
+            this.starterItems = starterItems;
+        }
+    }
+}
@@ -7,20 +7,28 @@ import de.melanx.skyblockbuilder.commands.invitation.AcceptCommand;
 import de.melanx.skyblockbuilder.commands.invitation.InviteCommand;
 import de.melanx.skyblockbuilder.commands.operator.ManageCommand;
 import de.melanx.skyblockbuilder.events.SkyblockHooks;
+import de.melanx.skyblockbuilder.metrics.Metrics;
+import de.melanx.skyblockbuilder.profiling.IslandProfiler;
+import de.melanx.skyblockbuilder.profiling.ProfilerSections;
+import de.melanx.skyblockbuilder.util.BulkJobScheduler;
+import de.melanx.skyblockbuilder.util.IslandBorder;
+import de.melanx.skyblockbuilder.util.IslandHibernation;
+import de.melanx.skyblockbuilder.util.IslandLimits;
+import de.melanx.skyblockbuilder.util.IslandPlacer;
 import de.melanx.skyblockbuilder.util.Team;
-import de.melanx.skyblockbuilder.util.TemplateLoader;
 import de.melanx.skyblockbuilder.util.WorldTypeUtil;
 import de.melanx.skyblockbuilder.util.WorldUtil;
+import de.melanx.skyblockbuilder.world.IslandPos;
 import de.melanx.skyblockbuilder.world.data.SkyblockSavedData;
 import net.minecraft.block.Blocks;
-import net.minecraft.client.resources.ReloadListener;
 import net.minecraft.command.Commands;
+import net.minecraft.entity.SpawnReason;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.inventory.EquipmentSlotType;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.profiler.IProfiler;
-import net.minecraft.resources.IResourceManager;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.dedicated.DedicatedServer;
 import net.minecraft.tags.BlockTags;
 import net.minecraft.util.math.BlockPos;
@@ -32,14 +40,25 @@ import net.minecraft.world.server.ServerWorld;
 import net.minecraftforge.event.AddReloadListenerEvent;
 import net.minecraftforge.event.RegisterCommandsEvent;
 import net.minecraftforge.event.ServerChatEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.EntityJoinWorldEvent;
+import net.minecraftforge.event.entity.EntityLeaveWorldEvent;
+import net.minecraftforge.event.entity.living.BabyEntitySpawnEvent;
+import net.minecraftforge.event.entity.living.EnderTeleportEvent;
+import net.minecraftforge.event.entity.living.LivingEvent;
+import net.minecraftforge.event.entity.living.LivingSpawnEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.world.BlockEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.eventbus.api.Event;
 import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.LogicalSide;
 import net.minecraftforge.fml.event.server.FMLServerAboutToStartEvent;
 import net.minecraftforge.fml.event.server.FMLServerStartedEvent;
+import net.minecraftforge.fml.event.server.FMLServerStoppingEvent;
+import net.minecraftforge.fml.server.ServerLifecycleHooks;
 
-import javax.annotation.Nonnull;
-import java.io.IOException;
 
 public class EventListener {
 
@@ -47,28 +66,12 @@ public class EventListener {
 
     @SubscribeEvent
     public void resourcesReload(AddReloadListenerEvent event) {
-        event.addListener(new ReloadListener<Object>() {
-            @Nonnull
-            @Override
-            protected Object prepare(@Nonnull IResourceManager manager, @Nonnull IProfiler profilerIn) {
-                return new Object();
-            }
-
-            @Override
-            protected void apply(@Nonnull Object unused, @Nonnull IResourceManager manager, @Nonnull IProfiler profiler) {
-                try {
-                    ConfigHandler.generateDefaultFiles();
-                    TemplateLoader.loadSchematic(manager);
-                } catch (IOException e) {
-                    throw new RuntimeException(e);
-                }
-            }
-        });
+        event.addListener(new ConfigReloadListener());
     }
 
     @SubscribeEvent
     public void onRegisterCommands(RegisterCommandsEvent event) {
-        event.getDispatcher().register(Commands.literal("skyblock")
+        event.getDispatcher().getRoot().addChild(ProfilerSections.wrapCommands(Commands.literal("skyblock")
                 .requires(source -> WorldUtil.isSkyblock(source.getWorld()))
                 .then(AcceptCommand.register())
                 .then(CreateCommand.register())
@@ -82,11 +85,22 @@ public class EventListener {
                 .then(TeamCommand.register())
                 .then(VisitCommand.register())
                 .then(TeamChatCommand.register())
-        );
+                .build()
+        ));
     }
 
     @SubscribeEvent
     public void onMessage(ServerChatEvent event) {
+        IProfiler profiler = event.getPlayer().getServerWorld().getProfiler();
+        ProfilerSections.push(profiler, "teamChat");
+        try {
+            this.handleTeamChat(event);
+        } finally {
+            ProfilerSections.pop(profiler);
+        }
+    }
+
+    private void handleTeamChat(ServerChatEvent event) {
         ServerPlayerEntity player = event.getPlayer();
         SkyblockSavedData data = SkyblockSavedData.get(player.getServerWorld());
         Team team = data.getTeamFromPlayer(player);
@@ -118,38 +132,122 @@ public class EventListener {
         World world = event.getPlayer().world;
         if (world instanceof ServerWorld) {
             if (WorldUtil.isSkyblock(world)) {
-                SkyblockSavedData data = SkyblockSavedData.get((ServerWorld) world);
-                ServerPlayerEntity player = (ServerPlayerEntity) event.getPlayer();
-                Team spawn = data.getSpawn();
-                if (player.getPersistentData().getBoolean(SPAWNED_TAG)) {
-                    Team team = data.getTeamFromPlayer(player);
-                    if (!data.hasPlayerTeam(player) && !data.getSpawn().hasPlayer(player)) {
-                        if (ConfigHandler.dropItems.get()) {
-                            player.inventory.dropAllItems();
-                        }
-                        WorldUtil.teleportToIsland(player, spawn);
-                        data.addPlayerToTeam("spawn", player);
-                    }
-
-                    return;
+                ProfilerSections.push(world.getProfiler(), "login");
+                try {
+                    this.handleLogin((ServerWorld) world, (ServerPlayerEntity) event.getPlayer());
+                    IslandHibernation.onLogin(SkyblockSavedData.get((ServerWorld) world), (ServerPlayerEntity) event.getPlayer());
+                    IslandBorder.sendBorder((ServerPlayerEntity) event.getPlayer());
+                } finally {
+                    ProfilerSections.pop(world.getProfiler());
                 }
+            }
+        }
+    }
 
-                player.getPersistentData().putBoolean(SPAWNED_TAG, true);
-                spawn.addPlayer(player);
-                ((ServerWorld) world).func_241124_a__(spawn.getIsland().getCenter(), ConfigHandler.direction.get().getYaw());
+    private void handleLogin(ServerWorld world, ServerPlayerEntity player) {
+        SkyblockSavedData data = SkyblockSavedData.get(world);
+        Team spawn = data.getSpawn();
+        if (player.getPersistentData().getBoolean(SPAWNED_TAG)) {
+            if (data.trackLogin(player.getGameProfile().getId(), false)) {
+                if (ConfigHandler.dropItems.get()) {
+                    player.inventory.dropAllItems();
+                }
                 WorldUtil.teleportToIsland(player, spawn);
+            }
 
-                if (ConfigHandler.clearInv.get()) {
-                    player.inventory.clear();
-                }
+            return;
+        }
+
+        player.getPersistentData().putBoolean(SPAWNED_TAG, true);
+        data.trackLogin(player.getGameProfile().getId(), true);
+        world.func_241124_a__(spawn.getIsland().getCenter(), ConfigHandler.direction.get().getYaw());
+        WorldUtil.teleportToIsland(player, spawn);
+
+        if (ConfigHandler.clearInv.get()) {
+            player.inventory.clear();
+        }
+
+        ConfigHandler.getStarterItems().forEach(entry -> {
+            if (entry.getLeft() == EquipmentSlotType.MAINHAND) {
+                player.inventory.addItemStackToInventory(entry.getRight().copy());
+            } else {
+                player.setItemStackToSlot(entry.getLeft(), entry.getRight().copy());
+            }
+        });
+    }
+
+    @SubscribeEvent
+    public void onPlayerLeave(PlayerEvent.PlayerLoggedOutEvent event) {
+        IslandBorder.onLogout(event.getPlayer());
+    }
+
+    @SubscribeEvent
+    public void onChangeDimension(PlayerEvent.PlayerChangedDimensionEvent event) {
+        if (event.getPlayer() instanceof ServerPlayerEntity) {
+            IslandBorder.sendBorder((ServerPlayerEntity) event.getPlayer());
+        }
+    }
+
+    // Ender pearls and chorus fruits can't leave the island border
+    @SubscribeEvent
+    public void onEnderTeleport(EnderTeleportEvent event) {
+        if (event.getEntityLiving() instanceof PlayerEntity && IslandBorder.isRestricted((PlayerEntity) event.getEntityLiving())
+                && WorldUtil.isSkyblock(event.getEntityLiving().world)
+                && !IslandPos.isWithinRadius(event.getTargetX(), event.getTargetZ(), ConfigHandler.islandRadius.get())) {
+            event.setCanceled(true);
+        }
+    }
+
+    // Runs last, so entities which another mod stopped from joining aren't counted
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onEntityJoin(EntityJoinWorldEvent event) {
+        if (!event.getWorld().isRemote && WorldUtil.isSkyblock(event.getWorld())) {
+            IslandLimits.onEntityJoin(event.getEntity());
+        }
+    }
 
-                ConfigHandler.STARTER_ITEMS.forEach(entry -> {
-                    if (entry.getLeft() == EquipmentSlotType.MAINHAND) {
-                        player.inventory.addItemStackToInventory(entry.getRight().copy());
-                    } else {
-                        player.setItemStackToSlot(entry.getLeft(), entry.getRight().copy());
-                    }
-                });
+    @SubscribeEvent
+    public void onEntityLeave(EntityLeaveWorldEvent event) {
+        if (!event.getWorld().isRemote) {
+            IslandLimits.onEntityLeave(event.getEntity());
+        }
+    }
+
+    @SubscribeEvent
+    public void onCheckSpawn(LivingSpawnEvent.CheckSpawn event) {
+        if (event.getWorld() instanceof World && WorldUtil.isSkyblock((World) event.getWorld())) {
+            if (!IslandLimits.canSpawn(event.getX(), event.getZ()) || event.getSpawnReason() == SpawnReason.NATURAL
+                    && !IslandLimits.canSpawnMob(event.getEntityLiving().getClassification(true), event.getX(), event.getZ())) {
+                event.setResult(Event.Result.DENY);
+            }
+        }
+    }
+
+    // Skips the spawn attempts of islands at their mob cap before any mob is created
+    @SubscribeEvent
+    public void onPotentialSpawns(WorldEvent.PotentialSpawns event) {
+        if (event.getWorld() instanceof World && WorldUtil.isSkyblock((World) event.getWorld())
+                && !IslandLimits.canSpawnMob(event.getType(), event.getPos().getX(), event.getPos().getZ())) {
+            event.setCanceled(true);
+        }
+    }
+
+    @SubscribeEvent
+    public void onBreed(BabyEntitySpawnEvent event) {
+        World world = event.getParentA().world;
+        if (!world.isRemote && WorldUtil.isSkyblock(world) && !IslandLimits.canSpawn(event.getParentA().getPosX(), event.getParentA().getPosZ())) {
+            event.setCanceled(true);
+        }
+    }
+
+    @SubscribeEvent
+    public void onPlaceBlock(BlockEvent.EntityPlaceEvent event) {
+        if (event.getWorld() instanceof World && WorldUtil.isSkyblock((World) event.getWorld()) && event.getPlacedBlock().hasTileEntity()) {
+            BlockPos pos = event.getPos();
+            if (IslandLimits.canPlaceTileEntity(pos.getX(), pos.getZ())) {
+                IslandLimits.onTileEntityPlaced(pos.getX(), pos.getZ());
+            } else {
+                event.setCanceled(true);
             }
         }
     }
@@ -173,10 +271,62 @@ public class EventListener {
 
             ServerWorld world = player.getServerWorld();
             if (pos == null || !world.getBlockState(pos).isIn(BlockTags.BEDS) && !world.getBlockState(pos).isIn(Blocks.RESPAWN_ANCHOR)) {
-                SkyblockSavedData data = SkyblockSavedData.get(world);
-                Team team = data.getTeamFromPlayer(player);
-                WorldUtil.teleportToIsland(player, team == null ? data.getSpawn() : team);
+                ProfilerSections.push(world.getProfiler(), "respawn");
+                try {
+                    SkyblockSavedData data = SkyblockSavedData.get(world);
+                    Team team = data.getTeamFromPlayer(player);
+                    WorldUtil.teleportToIsland(player, team == null ? data.getSpawn() : team);
+                } finally {
+                    ProfilerSections.pop(world.getProfiler());
+                }
             }
+            IslandBorder.sendBorder(player);
+        }
+    }
+
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.END) {
+            MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+            ProfilerSections.push(server.getProfiler(), "bulkJobs");
+            try {
+                BulkJobScheduler.tick();
+                server.getProfiler().endStartSection("placeIslands");
+                IslandPlacer.tick();
+                if (WorldUtil.isSkyblock(server.func_241755_D_())) {
+                    SkyblockSavedData data = SkyblockSavedData.get(server.func_241755_D_());
+                    server.getProfiler().endStartSection("hibernation");
+                    IslandHibernation.tick(data);
+                    server.getProfiler().endStartSection("islandLimits");
+                    IslandLimits.tick(data.getWorld());
+                    server.getProfiler().endStartSection("islandBorder");
+                    IslandBorder.tick(data.getWorld());
+                    server.getProfiler().endStartSection("snapshot");
+                    data.publishSnapshot();
+                }
+                server.getProfiler().endStartSection("metrics");
+                Metrics.tick(server);
+            } finally {
+                ProfilerSections.pop(server.getProfiler());
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public void onWorldTick(TickEvent.WorldTickEvent event) {
+        if (IslandProfiler.isRunning() && event.side == LogicalSide.SERVER && WorldUtil.isSkyblock(event.world)) {
+            if (event.phase == TickEvent.Phase.START) {
+                IslandProfiler.onWorldTickStart((ServerWorld) event.world);
+            } else {
+                IslandProfiler.onWorldTickEnd((ServerWorld) event.world);
+            }
+        }
+    }
+
+    @SubscribeEvent(priority = EventPriority.HIGHEST)
+    public void onLivingUpdate(LivingEvent.LivingUpdateEvent event) {
+        if (IslandProfiler.isRunning()) {
+            IslandProfiler.onEntityTick(event.getEntity());
         }
     }
 
@@ -190,7 +340,27 @@ public class EventListener {
     @SubscribeEvent
     public void onServerStarted(FMLServerStartedEvent event) {
         if (WorldUtil.isSkyblock(event.getServer().func_241755_D_())) {
-            SkyblockSavedData.get(event.getServer().func_241755_D_()).getSpawn();
+            SkyblockSavedData data = SkyblockSavedData.get(event.getServer().func_241755_D_());
+            data.getSpawn();
+            data.resumePlacements();
+            Metrics.TEAMS.setSupplier(() -> data.getSnapshot().getTeams().size() - 1);
+            Metrics.PENDING_INVITES.setSupplier(() -> data.getSnapshot().getInviteCount());
+
+            if (ConfigHandler.profilerEnabled.get()) {
+                IslandProfiler.start();
+            }
         }
     }
+
+    @SubscribeEvent
+    public void onServerStopping(FMLServerStoppingEvent event) {
+        BulkJobScheduler.clear();
+        IslandPlacer.clear();
+        IslandHibernation.clear();
+        IslandBorder.clear();
+        IslandLimits.clear();
+        IslandProfiler.stop();
+        Metrics.TEAMS.setSupplier(null);
+        Metrics.PENDING_INVITES.setSupplier(null);
+    }
 }
@@ -2,6 +2,7 @@ package de.melanx.skyblockbuilder;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import de.melanx.skyblockbuilder.world.IslandPos;
 import de.melanx.skyblockbuilder.world.VoidWorldType;
 import de.melanx.skyblockbuilder.world.dimensions.end.SkyblockEndBiomeProvider;
 import de.melanx.skyblockbuilder.world.dimensions.end.SkyblockEndChunkGenerator;
@@ -14,6 +15,7 @@ import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.world.ForgeWorldType;
 import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.config.ModConfig;
 import net.minecraftforge.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
 import org.apache.logging.log4j.LogManager;
@@ -36,6 +38,8 @@ public class SkyblockBuilder {
     public SkyblockBuilder() {
         IEventBus bus = FMLJavaModLoadingContext.get().getModEventBus();
         bus.addListener(this::commonSetup);
+        bus.addListener(this::onConfigLoading);
+        bus.addListener(this::onConfigReloading);
         bus.addGenericListener(ForgeWorldType.class, VoidWorldType::register);
 
         ConfigHandler.setup();
@@ -54,4 +58,12 @@ public class SkyblockBuilder {
             SkyblockEndChunkGenerator.init();
         });
     }
+
+    private void onConfigLoading(ModConfig.Loading event) {
+        IslandPos.onConfigChanged();
+    }
+
+    private void onConfigReloading(ModConfig.Reloading event) {
+        IslandPos.onConfigChanged();
+    }
 }
@@ -4,7 +4,6 @@ import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.ArgumentBuilder;
 import de.melanx.skyblockbuilder.ConfigHandler;
 import de.melanx.skyblockbuilder.events.SkyblockHooks;
-import de.melanx.skyblockbuilder.util.NameGenerator;
 import de.melanx.skyblockbuilder.util.Team;
 import de.melanx.skyblockbuilder.util.WorldUtil;
 import de.melanx.skyblockbuilder.world.data.SkyblockSavedData;
@@ -16,9 +15,10 @@ import net.minecraft.util.text.TextFormatting;
 import net.minecraft.util.text.TranslationTextComponent;
 import net.minecraft.world.server.ServerWorld;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Random;
+import java.util.List;
 
 public class CreateCommand {
 
@@ -38,10 +38,7 @@ public class CreateCommand {
         SkyblockSavedData data = SkyblockSavedData.get(world);
 
         if (name == null) {
-            Random rand = new Random();
-            do {
-                name = NameGenerator.randomName(rand);
-            } while (data.teamExists(name));
+            name = data.nextTeamName();
         }
 
         if (SkyblockHooks.onCreateTeam(name)) {
@@ -61,21 +58,29 @@ public class CreateCommand {
             return 0;
         }
 
+        List<ServerPlayerEntity> joined = new ArrayList<>();
         if (players.isEmpty() && source.getEntity() instanceof ServerPlayerEntity) {
             ServerPlayerEntity player = (ServerPlayerEntity) source.getEntity();
             team.addPlayer(player);
-            WorldUtil.teleportToIsland(player, team);
+            joined.add(player);
         } else {
             players.forEach(player -> {
                 if (data.getTeamFromPlayer(player) != null) {
                     source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.error.player_has_team", player.getDisplayName().getString()).mergeStyle(TextFormatting.RED), true);
                 } else {
                     team.addPlayer(player);
-                    WorldUtil.teleportToIsland(player, team);
+                    joined.add(player);
                 }
             });
         }
 
+        // Players who left the team or the server while the island was placed stay where they are
+        data.whenReady(team, ready -> joined.forEach(player -> {
+            if (!player.hasDisconnected() && ready.hasPlayer(player)) {
+                WorldUtil.teleportToIsland(player, ready);
+            }
+        }));
+
         source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.success.create_team", name).mergeStyle(TextFormatting.GREEN), true);
         return 1;
     }
@@ -49,7 +49,11 @@ public class HomeCommand {
         }
 
         source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.success.teleport_home").mergeStyle(TextFormatting.GOLD), true);
-        WorldUtil.teleportToIsland(player, team);
+        data.whenReady(team, ready -> {
+            if (!player.hasDisconnected() && ready.hasPlayer(player)) {
+                WorldUtil.teleportToIsland(player, ready);
+            }
+        });
         return 1;
     }
 }
@@ -9,7 +9,6 @@ import de.melanx.skyblockbuilder.ConfigHandler;
 import de.melanx.skyblockbuilder.commands.operator.ManageCommand;
 import de.melanx.skyblockbuilder.events.SkyblockHooks;
 import de.melanx.skyblockbuilder.util.Team;
-import de.melanx.skyblockbuilder.util.TemplateLoader;
 import de.melanx.skyblockbuilder.world.data.SkyblockSavedData;
 import net.minecraft.command.CommandSource;
 import net.minecraft.command.Commands;
@@ -23,15 +22,16 @@ import net.minecraft.world.server.ServerWorld;
 import net.minecraftforge.eventbus.api.Event;
 import org.apache.commons.lang3.tuple.Pair;
 
-import java.util.Set;
 
 public class TeamCommand {
 
     public static final SuggestionProvider<CommandSource> SUGGEST_POSITIONS = (context, builder) -> {
         Team team = SkyblockSavedData.get(context.getSource().getWorld()).getTeamFromPlayer(context.getSource().asPlayer());
         if (team != null) {
-            Set<BlockPos> possibleSpawns = team.getPossibleSpawns();
-            possibleSpawns.forEach(spawn -> builder.suggest(String.format("%s %s %s", spawn.getX(), spawn.getY(), spawn.getZ())));
+            for (int i = 0; i < team.getSpawnCount(); i++) {
+                long spawn = team.getSpawn(i);
+                builder.suggest(BlockPos.unpackX(spawn) + " " + BlockPos.unpackY(spawn) + " " + BlockPos.unpackZ(spawn));
+            }
         }
 
         return BlockPosArgument.blockPos().listSuggestions(context, builder);
@@ -133,9 +133,8 @@ public class TeamCommand {
                     source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.disabled.modify_spawns").mergeStyle(TextFormatting.RED), true);
                     return 0;
                 }
-                BlockPos templateSize = TemplateLoader.TEMPLATE.getSize();
-                BlockPos center = team.getIsland().getCenter().toMutable();
-                center.add(templateSize.getX() / 2, templateSize.getY() / 2, templateSize.getZ() / 2);
+                BlockPos templateSize = team.getTemplate().getSize();
+                BlockPos.Mutable center = team.getIsland().offset(new BlockPos.Mutable(), templateSize.getX() / 2, templateSize.getY() / 2, templateSize.getZ() / 2);
                 if (!pos.withinDistance(center, ConfigHandler.modifySpawnRange.get())) {
                     source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.error.position_too_far_away").mergeStyle(TextFormatting.RED), true);
                     return 0;
@@ -170,7 +169,7 @@ public class TeamCommand {
 
         switch (SkyblockHooks.onRemoveSpawn(player, team, pos)) {
             case DENY:
-                source.sendFeedback(new TranslationTextComponent("You can't remove this spawn point. " + (team.getPossibleSpawns().size() <= 1 ? "There are too less spawn points left." : "")).mergeStyle(TextFormatting.RED), true);
+                source.sendFeedback(new TranslationTextComponent("You can't remove this spawn point. " + (team.getSpawnCount() <= 1 ? "There are too less spawn points left." : "")).mergeStyle(TextFormatting.RED), true);
                 return 0;
             case DEFAULT:
                 if (!ConfigHandler.selfManageTeam.get() && !source.hasPermissionLevel(2)) {
@@ -183,7 +182,7 @@ public class TeamCommand {
 
         if (!team.removePossibleSpawn(pos)) {
             source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.error.remove_spawn0",
-                    (team.getPossibleSpawns().size() <= 1
+                    (team.getSpawnCount() <= 1
                             ? new StringTextComponent(" ").append(new TranslationTextComponent("skyblockbuilder.command.error.remove_spawn1"))
                             : "")
             ).mergeStyle(TextFormatting.RED), true);
@@ -238,7 +237,7 @@ public class TeamCommand {
                 break;
         }
 
-        team.setPossibleSpawns(SkyblockSavedData.initialPossibleSpawns(team.getIsland().getCenter()));
+        team.setPossibleSpawns(SkyblockSavedData.initialPossibleSpawns(team.getIsland().getCenter(), team.getTemplate()));
         source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.success.reset_spawns").mergeStyle(TextFormatting.GOLD), true);
         return 1;
     }
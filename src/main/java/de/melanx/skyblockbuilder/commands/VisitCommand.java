@@ -11,18 +11,15 @@ import de.melanx.skyblockbuilder.util.WorldUtil;
 import de.melanx.skyblockbuilder.world.data.SkyblockSavedData;
 import net.minecraft.command.CommandSource;
 import net.minecraft.command.Commands;
-import net.minecraft.command.ISuggestionProvider;
 import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.util.text.TextFormatting;
 import net.minecraft.util.text.TranslationTextComponent;
 import net.minecraft.world.server.ServerWorld;
 
-import java.util.stream.Collectors;
-
 public class VisitCommand {
     
-    public static final SuggestionProvider<CommandSource> SUGGEST_VISIT_TEAMS = (context, builder) -> ISuggestionProvider.suggest(SkyblockSavedData.get(context.getSource().asPlayer().getServerWorld())
-            .getTeams().stream().filter(Team::allowsVisits).map(Team::getName).filter(name -> !name.equalsIgnoreCase("spawn")).collect(Collectors.toSet()), builder);
+    public static final SuggestionProvider<CommandSource> SUGGEST_VISIT_TEAMS = (context, builder) -> SkyblockSavedData.get(context.getSource().getWorld())
+            .getVisitableTeamIndex().suggest(builder);
 
     public static ArgumentBuilder<CommandSource, ?> register() {
         // Let the player visit another team
@@ -67,7 +64,11 @@ public class VisitCommand {
                 break;
         }
 
-        WorldUtil.teleportToIsland(player, team);
+        data.whenReady(team, ready -> {
+            if (!player.hasDisconnected()) {
+                WorldUtil.teleportToIsland(player, ready);
+            }
+        });
         source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.success.visit_team", name).mergeStyle(TextFormatting.GOLD), true);
         return 1;
     }
@@ -1,8 +1,10 @@
 package de.melanx.skyblockbuilder.commands.helper;
 
 import com.mojang.authlib.GameProfile;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.ArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
 import de.melanx.skyblockbuilder.commands.operator.ManageCommand;
 import de.melanx.skyblockbuilder.util.Team;
 import de.melanx.skyblockbuilder.world.data.SkyblockSavedData;
@@ -16,48 +18,95 @@ import net.minecraft.util.text.TextFormatting;
 import net.minecraft.util.text.TranslationTextComponent;
 import net.minecraft.world.server.ServerWorld;
 
-import java.util.Comparator;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
 
 public class ListCommand {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
     public static ArgumentBuilder<CommandSource, ?> register() {
-       // Lists all teams
+        // Lists all teams
         return Commands.literal("list")
-                .executes(context -> listTeams(context.getSource()))
-                 // Lists all members in team
+                .executes(context -> listTeams(context.getSource(), team -> true, 1, DEFAULT_PAGE_SIZE))
+                // Filters are below their own literal, so they don't hide teams with the same name
+                .then(Commands.literal("filter")
+                        .then(paged(Commands.literal("all"), context -> team -> true))
+                        // Lists only empty teams
+                        .then(paged(Commands.literal("empty"), context -> Team::isEmpty))
+                        // Lists only teams which can be visited
+                        .then(paged(Commands.literal("visits"), context -> Team::allowsVisits))
+                        // Lists only teams with a member count in the given range, the upper bound is optional
+                        .then(Commands.literal("members")
+                                .then(paged(Commands.argument("min", IntegerArgumentType.integer(0)), context -> {
+                                    int min = IntegerArgumentType.getInteger(context, "min");
+                                    return team -> team.getPlayers().size() >= min;
+                                })
+                                        .then(Commands.literal("to")
+                                                .then(paged(Commands.argument("max", IntegerArgumentType.integer(0)), context -> {
+                                                    int min = IntegerArgumentType.getInteger(context, "min");
+                                                    int max = IntegerArgumentType.getInteger(context, "max");
+                                                    return team -> team.getPlayers().size() >= min && team.getPlayers().size() <= max;
+                                                }))))))
+                // Lists all members in team
                 .then(Commands.argument("team", StringArgumentType.word()).suggests(ManageCommand.SUGGEST_TEAMS)
                         .executes(context -> listPlayers(context.getSource(), StringArgumentType.getString(context, "team"))));
     }
 
-    private static int listTeams(CommandSource source) {
+    // Adds the optional [page] [pageSize] arguments to the given node
+    private static ArgumentBuilder<CommandSource, ?> paged(ArgumentBuilder<CommandSource, ?> node, TeamFilter filter) {
+        return node.executes(context -> listTeams(context.getSource(), filter.create(context), 1, DEFAULT_PAGE_SIZE))
+                .then(Commands.argument("page", IntegerArgumentType.integer(1))
+                        .executes(context -> listTeams(context.getSource(), filter.create(context), IntegerArgumentType.getInteger(context, "page"), DEFAULT_PAGE_SIZE))
+                        .then(Commands.argument("pageSize", IntegerArgumentType.integer(1, 100))
+                                .executes(context -> listTeams(context.getSource(), filter.create(context), IntegerArgumentType.getInteger(context, "page"), IntegerArgumentType.getInteger(context, "pageSize")))));
+    }
+
+    private static int listTeams(CommandSource source, Predicate<Team> filter, int page, int pageSize) {
         ServerWorld world = source.getWorld();
         SkyblockSavedData data = SkyblockSavedData.get(world);
 
-        List<Team> teams = data.getTeams().stream().sorted(Comparator.comparing(Team::getName)).filter(team -> team.getName().equalsIgnoreCase("spawn")).collect(Collectors.toList());
-        IFormattableTextComponent info = new TranslationTextComponent("skyblockbuilder.command.info.teams",
-                teams.size(),
-                teams.stream().filter(Team::isEmpty).count());
-        info.mergeStyle(TextFormatting.GOLD);
-        source.sendFeedback(info, true);
+        // The index is already sorted and doesn't contain spawn, so only the requested page is built
+        int from = (page - 1) * pageSize;
+        int matching = 0;
+        int empty = 0;
+        IFormattableTextComponent list = new StringTextComponent("");
+        for (Team team : data.getTeamIndex().getTeams()) {
+            if (!filter.test(team)) {
+                continue;
+            }
+
+            if (team.isEmpty()) {
+                empty++;
+            }
 
-        for (Team team : teams) {
-            if (!team.getName().equalsIgnoreCase("spawn")) {
-                IFormattableTextComponent list = (new StringTextComponent("- " + team.getName()));
+            if (matching >= from && matching < from + pageSize) {
+                list.appendString("\n");
+                IFormattableTextComponent entry = new StringTextComponent("- " + team.getName());
                 if (team.isEmpty()) {
-                    list.appendString(" (");
-                    list.append(new TranslationTextComponent("skyblockbuilder.command.argument.empty"));
-                    list.appendString(")");
-                    list.mergeStyle(TextFormatting.RED);
+                    entry.appendString(" (");
+                    entry.append(new TranslationTextComponent("skyblockbuilder.command.argument.empty"));
+                    entry.appendString(")");
+                    entry.mergeStyle(TextFormatting.RED);
                 } else {
-                    list.mergeStyle(TextFormatting.GREEN);
+                    entry.mergeStyle(TextFormatting.GREEN);
                 }
-
-                source.sendFeedback(list, true);
+                list.append(entry);
             }
+            matching++;
         }
 
+        int pages = Math.max(1, (matching + pageSize - 1) / pageSize);
+        if (page > pages) {
+            source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.error.page_out_of_range", page, pages).mergeStyle(TextFormatting.RED), true);
+            return 0;
+        }
+
+        IFormattableTextComponent info = new TranslationTextComponent("skyblockbuilder.command.info.teams", matching, empty).mergeStyle(TextFormatting.GOLD);
+        info.appendString(" ");
+        info.append(new TranslationTextComponent("skyblockbuilder.command.info.page", page, pages).mergeStyle(TextFormatting.GRAY));
+        info.append(list);
+        source.sendFeedback(info, true);
+
         return 1;
     }
 
@@ -85,4 +134,9 @@ public class ListCommand {
 
         return 1;
     }
+
+    private interface TeamFilter {
+
+        Predicate<Team> create(CommandContext<CommandSource> context);
+    }
 }
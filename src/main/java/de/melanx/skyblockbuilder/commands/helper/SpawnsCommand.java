@@ -13,7 +13,7 @@ import net.minecraft.particles.ParticleTypes;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.server.ServerWorld;
 
-import java.util.Set;
+import javax.annotation.Nullable;
 
 public class SpawnsCommand {
 
@@ -29,19 +29,30 @@ public class SpawnsCommand {
     private static int showSpawns(CommandSource source, boolean debug) throws CommandSyntaxException {
         ServerWorld world = source.getWorld();
         SkyblockSavedData data = SkyblockSavedData.get(world);
+        ServerPlayerEntity player = source.getEntity() instanceof ServerPlayerEntity ? source.asPlayer() : null;
 
+        BlockPos.Mutable mpos = new BlockPos.Mutable();
         for (Team team : data.getTeams()) {
-            IslandPos spawn = team.getIsland();
-            Set<BlockPos> posSet = debug ? SkyblockSavedData.initialPossibleSpawns(spawn.getCenter()) : team.getPossibleSpawns();
-            for (BlockPos pos : posSet) {
-                if (source.getEntity() instanceof ServerPlayerEntity) {
-                    world.spawnParticle(source.asPlayer(), ParticleTypes.HAPPY_VILLAGER, true, pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5, 5, 0.1, 0.1, 0.1, 10);
-                } else {
-                    world.spawnParticle(ParticleTypes.HAPPY_VILLAGER, pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5, 5, 0.1, 0.1, 0.1, 10);
+            if (debug) {
+                IslandPos island = team.getIsland();
+                for (BlockPos offset : team.getTemplate().getSpawns()) {
+                    showSpawn(world, player, island.offset(mpos, offset));
+                }
+            } else {
+                for (int i = 0; i < team.getSpawnCount(); i++) {
+                    showSpawn(world, player, mpos.setPos(team.getSpawn(i)));
                 }
             }
         }
 
         return 1;
     }
+
+    private static void showSpawn(ServerWorld world, @Nullable ServerPlayerEntity player, BlockPos pos) {
+        if (player != null) {
+            world.spawnParticle(player, ParticleTypes.HAPPY_VILLAGER, true, pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5, 5, 0.1, 0.1, 0.1, 10);
+        } else {
+            world.spawnParticle(ParticleTypes.HAPPY_VILLAGER, pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5, 5, 0.1, 0.1, 0.1, 10);
+        }
+    }
 }
@@ -0,0 +1,298 @@
+package de.melanx.skyblockbuilder.commands.operator;
+
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import com.mojang.brigadier.suggestion.SuggestionProvider;
+import de.melanx.skyblockbuilder.ConfigHandler;
+import de.melanx.skyblockbuilder.events.SkyblockHooks;
+import de.melanx.skyblockbuilder.util.*;
+import de.melanx.skyblockbuilder.world.IslandPos;
+import de.melanx.skyblockbuilder.world.data.SkyblockSavedData;
+import net.minecraft.command.CommandSource;
+import net.minecraft.command.Commands;
+import net.minecraft.command.ISuggestionProvider;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.server.management.PlayerList;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.ITextComponent;
+import net.minecraft.util.text.StringTextComponent;
+import net.minecraft.util.text.TextFormatting;
+import net.minecraft.util.text.TranslationTextComponent;
+import net.minecraft.world.server.ServerWorld;
+import org.apache.commons.lang3.tuple.Pair;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+public class IslandCommand {
+
+    private static final int USAGE_COUNT = 10;
+    private static final SuggestionProvider<CommandSource> SUGGEST_ISLAND_FILES = (context, builder) -> ISuggestionProvider.suggest(IslandArchive.getFiles(), builder);
+
+    public static ArgumentBuilder<CommandSource, ?> register() {
+        return Commands.literal("island")
+                // Removes everything on the island and places the template again at the same position
+                .then(Commands.literal("reset")
+                        .then(Commands.argument("team", StringArgumentType.word()).suggests(ManageCommand.SUGGEST_TEAMS)
+                                .executes(context -> resetIsland(context.getSource(), StringArgumentType.getString(context, "team")))))
+                // Saves the island of a team to a file
+                .then(Commands.literal("export")
+                        .then(Commands.argument("team", StringArgumentType.word()).suggests(ManageCommand.SUGGEST_TEAMS)
+                                .executes(context -> exportIsland(context.getSource(), StringArgumentType.getString(context, "team")))))
+                // Creates a new team with the island from a file
+                .then(Commands.literal("import")
+                        .then(Commands.argument("file", StringArgumentType.word()).suggests(SUGGEST_ISLAND_FILES)
+                                .executes(context -> importIsland(context.getSource(), StringArgumentType.getString(context, "file"), null))
+                                .then(Commands.argument("name", StringArgumentType.word())
+                                        .executes(context -> importIsland(context.getSource(), StringArgumentType.getString(context, "file"), StringArgumentType.getString(context, "name"))))))
+                // Shows the loaded entities and tile entities of the islands with the most entities
+                .then(Commands.literal("usage")
+                        .executes(context -> showUsage(context.getSource()))
+                        .then(Commands.argument("team", StringArgumentType.word()).suggests(ManageCommand.SUGGEST_TEAMS)
+                                .executes(context -> showUsage(context.getSource(), StringArgumentType.getString(context, "team")))));
+    }
+
+    private static int resetIsland(CommandSource source, String teamName) {
+        // The islands are always in the overworld, no matter where the command was run
+        SkyblockSavedData data = SkyblockSavedData.get(source.getWorld());
+        ServerWorld world = data.getWorld();
+
+        Team team = data.getTeam(teamName);
+        if (team == null) {
+            source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.error.team_not_exist").mergeStyle(TextFormatting.RED), true);
+            return 0;
+        }
+
+        if (team.getName().equalsIgnoreCase("spawn")) {
+            source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.error.reset_spawn").mergeStyle(TextFormatting.RED), true);
+            return 0;
+        }
+
+        // Also set while the island is cleared, so it can't be reset twice at once
+        if (team.isPendingPlacement()) {
+            source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.error.island_busy").mergeStyle(TextFormatting.RED), true);
+            return 0;
+        }
+
+        if (SkyblockHooks.onManageResetIsland(source, team)) {
+            source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.denied.reset_island").mergeStyle(TextFormatting.RED), true);
+            return 0;
+        }
+
+        // Everyone on the island waits at spawn until it's placed again
+        Team spawn = data.getSpawn();
+        List<ServerPlayerEntity> moved = new ArrayList<>();
+        for (ServerPlayerEntity player : world.getPlayers()) {
+            if (data.getTeamAt(player.getPosition()) == team) {
+                WorldUtil.teleportToIsland(player, spawn);
+                moved.add(player);
+            }
+        }
+
+        team.setPendingPlacement(true);
+        BulkJobScheduler.schedule(source, new TranslationTextComponent("skyblockbuilder.command.argument.reset_island", team.getName()), IslandCleaner.getChunks(team.getIsland()),
+                chunk -> IslandCleaner.clearChunk(world, chunk), changed -> {
+                    if (data.getTeam(team.getName()) != team) {
+                        return;
+                    }
+
+                    source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.info.island_cleared", team.getName(), changed).mergeStyle(TextFormatting.GOLD), true);
+                    team.setPossibleSpawns(SkyblockSavedData.initialPossibleSpawns(team.getIsland().getCenter(), team.getTemplate()));
+                    IslandPlacer.schedule(data, team, null);
+                    data.whenReady(team, ready -> {
+                        for (ServerPlayerEntity player : moved) {
+                            if (!player.hasDisconnected() && data.getTeamAt(player.getPosition()) == spawn) {
+                                WorldUtil.teleportToIsland(player, ready);
+                            }
+                        }
+                        source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.success.reset_island", ready.getName()).mergeStyle(TextFormatting.GREEN), true);
+                    });
+                }, () -> {
+                    // The island is placed again on top of what's left, so it doesn't stay busy
+                    if (data.getTeam(team.getName()) == team) {
+                        IslandPlacer.schedule(data, team, null);
+                    }
+                });
+
+        return 1;
+    }
+
+    private static int exportIsland(CommandSource source, String teamName) {
+        SkyblockSavedData data = SkyblockSavedData.get(source.getWorld());
+        ServerWorld world = data.getWorld();
+
+        Team team = data.getTeam(teamName);
+        if (team == null) {
+            source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.error.team_not_exist").mergeStyle(TextFormatting.RED), true);
+            return 0;
+        }
+
+        if (team.isPendingPlacement()) {
+            source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.error.island_busy").mergeStyle(TextFormatting.RED), true);
+            return 0;
+        }
+
+        Path file;
+        IslandArchive.Writer writer;
+        try {
+            file = IslandArchive.getFile(team.getName().toLowerCase());
+            writer = new IslandArchive.Writer(file, team);
+        } catch (IOException e) {
+            source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.error.export_island", e.getMessage()).mergeStyle(TextFormatting.RED), true);
+            return 0;
+        }
+
+        BulkJobScheduler.schedule(source, new TranslationTextComponent("skyblockbuilder.command.argument.export_island", team.getName()), IslandCleaner.getChunks(team.getIsland()),
+                chunk -> writer.writeChunk(world, chunk), chunks -> {
+                    try {
+                        writer.finish();
+                    } catch (IOException e) {
+                        source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.error.export_island", e.getMessage()).mergeStyle(TextFormatting.RED), true);
+                        return;
+                    }
+
+                    source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.success.export_island", team.getName(), file.getFileName().toString(), chunks).mergeStyle(TextFormatting.GREEN), true);
+                }, writer::abort);
+
+        return 1;
+    }
+
+    private static int importIsland(CommandSource source, String fileName, @Nullable String name) {
+        SkyblockSavedData data = SkyblockSavedData.get(source.getWorld());
+        ServerWorld world = data.getWorld();
+
+        IslandArchive.Reader reader;
+        try {
+            reader = new IslandArchive.Reader(IslandArchive.getFile(fileName));
+        } catch (IOException e) {
+            source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.error.import_island", fileName, e.getMessage()).mergeStyle(TextFormatting.RED), true);
+            return 0;
+        }
+
+        // Not added to the data, only used to read the saved team
+        CompoundNBT nbt = reader.getTeam();
+        Team archived = new Team(data, IslandPos.fromTag(nbt.getCompound("Island")));
+        archived.deserializeNBT(nbt);
+
+        Pair<Boolean, String> result = SkyblockHooks.onManageCreateTeam(source, name != null ? name : archived.getName(), false);
+        if (result.getLeft()) {
+            reader.close();
+            source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.denied.create_team").mergeStyle(TextFormatting.RED), true);
+            return 0;
+        }
+
+        Team team = data.allocateTeam(result.getRight(), archived.getTemplateName());
+        if (team == null) {
+            reader.close();
+            source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.error.team_already_exist", result.getRight()).mergeStyle(TextFormatting.RED), true);
+            return 0;
+        }
+
+        // Move everything from the old island position to the new one
+        BlockPos center = team.getIsland().getCenter();
+        BlockPos offset = center.subtract(archived.getIsland().getCenter());
+        Set<BlockPos> spawns = new HashSet<>();
+        for (BlockPos spawn : archived.getPossibleSpawns()) {
+            spawns.add(spawn.add(offset));
+        }
+        team.setPossibleSpawns(spawns);
+        team.setAllowVisit(archived.allowsVisits());
+
+        // Players who joined another team on this server stay there
+        for (UUID id : archived.getPlayers()) {
+            if (!data.hasPlayerTeam(id)) {
+                data.addPlayerToTeam(team, id);
+                if (archived.isInTeamChat(id)) {
+                    team.setTeamChat(id, true);
+                }
+            }
+        }
+
+        // An import interrupted by a restart gets the template placed instead
+        IslandPlacer.hold(team);
+        PlayerList playerList = source.getServer().getPlayerList();
+        data.whenReady(team, ready -> {
+            for (UUID id : ready.getPlayers()) {
+                ServerPlayerEntity player = playerList.getPlayerByUUID(id);
+                if (player != null) {
+                    WorldUtil.teleportToIsland(player, ready);
+                }
+            }
+        });
+
+        Random random = new Random();
+        BulkJobScheduler.schedule(source, new TranslationTextComponent("skyblockbuilder.command.argument.import_island", fileName), reader, reader.getMaxChunks(), entry -> {
+            if (data.getTeam(team.getName()) != team) {
+                return false;
+            }
+
+            entry.place(world, center, random);
+            return true;
+        }, chunks -> {
+            reader.close();
+            if (data.getTeam(team.getName()) != team) {
+                IslandPlacer.release(team, false);
+                return;
+            }
+
+            SkyblockHooks.onIslandReady(team);
+            IslandPlacer.release(team, true);
+            if (reader.getError() != null) {
+                source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.error.import_island", fileName, reader.getError().getMessage()).mergeStyle(TextFormatting.RED), true);
+            }
+
+            source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.success.import_island", team.getName(), chunks).mergeStyle(TextFormatting.GREEN), true);
+        }, () -> {
+            reader.close();
+            // Like after a restart, the team gets its template instead, which takes over the hold.
+            // On server stop this is cleared and resumed later
+            if (data.getTeam(team.getName()) == team) {
+                IslandPlacer.schedule(data, team, null);
+            } else {
+                IslandPlacer.release(team, false);
+            }
+        });
+
+        return 1;
+    }
+
+    private static int showUsage(CommandSource source) {
+        SkyblockSavedData data = SkyblockSavedData.get(source.getWorld());
+        List<IslandPos> islands = new ArrayList<>();
+        for (long island : IslandLimits.getIslands()) {
+            islands.add(IslandPos.fromLong(island));
+        }
+        islands.sort(Comparator.comparingInt(IslandLimits::getEntities).thenComparingInt(IslandLimits::getTileEntities).reversed());
+
+        source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.info.island_usage_header").mergeStyle(TextFormatting.GOLD), false);
+        for (int i = 0; i < Math.min(USAGE_COUNT, islands.size()); i++) {
+            sendUsage(source, ProfileCommand.getName(data, islands.get(i)), islands.get(i));
+        }
+
+        return 1;
+    }
+
+    private static int showUsage(CommandSource source, String teamName) {
+        Team team = SkyblockSavedData.get(source.getWorld()).getTeam(teamName);
+        if (team == null) {
+            source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.error.team_not_exist").mergeStyle(TextFormatting.RED), true);
+            return 0;
+        }
+
+        sendUsage(source, new StringTextComponent(team.getName()), team.getIsland());
+        return 1;
+    }
+
+    private static void sendUsage(CommandSource source, ITextComponent name, IslandPos island) {
+        source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.info.island_usage", name,
+                IslandLimits.getEntities(island), formatLimit(ConfigHandler.entityLimit.get()),
+                IslandLimits.getTileEntities(island), formatLimit(ConfigHandler.tileEntityLimit.get())), false);
+    }
+
+    private static String formatLimit(int limit) {
+        return limit <= 0 ? "-" : String.valueOf(limit);
+    }
+}
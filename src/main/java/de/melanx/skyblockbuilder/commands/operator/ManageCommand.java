@@ -7,8 +7,11 @@ import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import com.mojang.brigadier.suggestion.SuggestionProvider;
 import de.melanx.skyblockbuilder.ConfigHandler;
 import de.melanx.skyblockbuilder.events.SkyblockHooks;
-import de.melanx.skyblockbuilder.util.NameGenerator;
+import de.melanx.skyblockbuilder.util.BulkJobScheduler;
+import de.melanx.skyblockbuilder.util.IslandPlacer;
 import de.melanx.skyblockbuilder.util.Team;
+import de.melanx.skyblockbuilder.util.TeamProvisioner;
+import de.melanx.skyblockbuilder.util.TemplateLoader;
 import de.melanx.skyblockbuilder.util.WorldUtil;
 import de.melanx.skyblockbuilder.world.data.SkyblockSavedData;
 import net.minecraft.command.CommandSource;
@@ -22,13 +25,17 @@ import net.minecraft.util.text.TranslationTextComponent;
 import net.minecraft.world.server.ServerWorld;
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class ManageCommand {
 
-    public static final SuggestionProvider<CommandSource> SUGGEST_TEAMS = (context, builder) -> ISuggestionProvider.suggest(SkyblockSavedData.get(context.getSource().asPlayer().getServerWorld())
-            .getTeams().stream().map(Team::getName).filter(name -> !name.equalsIgnoreCase("spawn")).collect(Collectors.toSet()), builder);
+    public static final SuggestionProvider<CommandSource> SUGGEST_TEAMS = (context, builder) -> SkyblockSavedData.get(context.getSource().getWorld())
+            .getTeamIndex().suggest(builder);
+
+    private static final SuggestionProvider<CommandSource> SUGGEST_TEMPLATES = (context, builder) -> ISuggestionProvider.suggest(TemplateLoader.getTemplateNames(), builder);
+
+    private static final SuggestionProvider<CommandSource> SUGGEST_PROVISIONING_FILES = (context, builder) -> ISuggestionProvider.suggest(TeamProvisioner.getFiles(), builder);
 
     public static ArgumentBuilder<CommandSource, ?> register() {
         return Commands.literal("manage").requires(source -> source.hasPermissionLevel(2))
@@ -43,13 +50,22 @@ public class ManageCommand {
                         .then(Commands.literal("create")
                                 .executes(context -> createTeam(context.getSource(), false))
                                 .then(Commands.argument("name", StringArgumentType.word())
-                                        .executes(context -> createTeam(context.getSource(), StringArgumentType.getString(context, "name"), false))))
+                                        .executes(context -> createTeam(context.getSource(), StringArgumentType.getString(context, "name"), TemplateLoader.DEFAULT, false))
+                                        .then(Commands.argument("template", StringArgumentType.word()).suggests(SUGGEST_TEMPLATES)
+                                                .executes(context -> createTeam(context.getSource(), StringArgumentType.getString(context, "name"), StringArgumentType.getString(context, "template"), false)))))
 
                         // Creates a team and the player executing the command joins
                         .then(Commands.literal("createAndJoin")
                                 .executes(context -> createTeam(context.getSource(), true))
                                 .then(Commands.argument("name", StringArgumentType.word())
-                                        .executes(context -> createTeam(context.getSource(), StringArgumentType.getString(context, "name"), true))))
+                                        .executes(context -> createTeam(context.getSource(), StringArgumentType.getString(context, "name"), TemplateLoader.DEFAULT, true))
+                                        .then(Commands.argument("template", StringArgumentType.word()).suggests(SUGGEST_TEMPLATES)
+                                                .executes(context -> createTeam(context.getSource(), StringArgumentType.getString(context, "name"), StringArgumentType.getString(context, "template"), true)))))
+
+                        // Creates all teams listed in a provisioning file
+                        .then(Commands.literal("provision")
+                                .then(Commands.argument("file", StringArgumentType.word()).suggests(SUGGEST_PROVISIONING_FILES)
+                                        .executes(context -> provisionTeams(context.getSource(), StringArgumentType.getString(context, "file")))))
 
                         // Deletes the team with the given name
                         .then(Commands.literal("delete")
@@ -64,27 +80,28 @@ public class ManageCommand {
                 // Kicks player from its current team
                 .then(Commands.literal("kickPlayer")
                         .then(Commands.argument("player", EntityArgument.player())
-                                .executes(context -> removeFromTeam(context.getSource(), EntityArgument.getPlayer(context, "player")))));
+                                .executes(context -> removeFromTeam(context.getSource(), EntityArgument.getPlayer(context, "player")))))
+                // Resets islands
+                .then(IslandCommand.register())
+                // Shows which islands use the most tick time
+                .then(ProfileCommand.register())
+                // Shows or exports the metrics of this mod
+                .then(MetricsCommand.register());
     }
 
     private static int deleteEmptyTeams(CommandSource source) {
         ServerWorld world = source.getWorld();
         SkyblockSavedData data = SkyblockSavedData.get(world);
-        
-        int i = 0;
-        Iterator<Team> itr = data.getTeams().iterator();
-        while (itr.hasNext()) {
-            Team team = itr.next();
-            if (!SkyblockHooks.onManageDeleteTeam(source, team)) {
-                if (team.isEmpty()) {
-                    itr.remove();
-                    i++;
-                }
+
+        BulkJobScheduler.schedule(source, new TranslationTextComponent("skyblockbuilder.command.argument.delete_empty_teams"), data.getTeams(), team -> {
+            // The team may have been changed since this job was queued
+            if (data.getTeam(team.getName()) != team || !team.isEmpty() || team.getName().equalsIgnoreCase("spawn")) {
+                return false;
             }
-        }
-        data.markDirty();
 
-        source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.success.delete_multiple_teams", i).mergeStyle(TextFormatting.GREEN), true);
+            return !SkyblockHooks.onManageDeleteTeam(source, team) && data.deleteTeam(team);
+        }, deleted -> source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.success.delete_multiple_teams", deleted).mergeStyle(TextFormatting.GREEN), true));
+
         return 1;
     }
 
@@ -102,7 +119,7 @@ public class ManageCommand {
             source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.denied.clear_team").mergeStyle(TextFormatting.RED), true);
             return 0;
         }
-        
+
         assert team != null;
         int i = team.getPlayers().size();
         team.removeAllPlayers();
@@ -111,25 +128,25 @@ public class ManageCommand {
     }
 
     private static int createTeam(CommandSource source, boolean join) {
-        String team;
-        Random rand = new Random();
-        do {
-            team = NameGenerator.randomName(rand);
-        } while (SkyblockSavedData.get(source.getWorld()).teamExists(team));
-        return createTeam(source, team, join);
+        return createTeam(source, SkyblockSavedData.get(source.getWorld()).nextTeamName(), TemplateLoader.DEFAULT, join);
     }
 
-    private static int createTeam(CommandSource source, String name, boolean join) {
+    private static int createTeam(CommandSource source, String name, String template, boolean join) {
         ServerWorld world = source.getWorld();
         SkyblockSavedData data = SkyblockSavedData.get(world);
 
+        if (!TemplateLoader.templateExists(template)) {
+            source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.error.template_not_exist", template).mergeStyle(TextFormatting.RED), true);
+            return 0;
+        }
+
         Pair<Boolean, String> result = SkyblockHooks.onManageCreateTeam(source, name, join);
         if (result.getLeft()) {
             source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.denied.create_team").mergeStyle(TextFormatting.RED), true);
             return 0;
         }
         
-        Team team = data.createTeam(result.getRight());
+        Team team = data.createTeam(result.getRight(), template);
         if (team == null) {
             source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.error.team_already_exist", result.getRight()).mergeStyle(TextFormatting.RED), true);
             return 0;
@@ -144,7 +161,11 @@ public class ManageCommand {
                 }
 
                 team.addPlayer(player);
-                WorldUtil.teleportToIsland(player, team);
+                data.whenReady(team, ready -> {
+                    if (!player.hasDisconnected() && ready.hasPlayer(player)) {
+                        WorldUtil.teleportToIsland(player, ready);
+                    }
+                });
             } catch (CommandSyntaxException e) {
                 source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.error.user_no_player").mergeStyle(TextFormatting.RED), true);
                 return 1;
@@ -155,6 +176,81 @@ public class ManageCommand {
         return 1;
     }
 
+    private static int provisionTeams(CommandSource source, String file) {
+        SkyblockSavedData data = SkyblockSavedData.get(source.getWorld());
+
+        List<TeamProvisioner.Entry> entries;
+        try {
+            entries = TeamProvisioner.read(file);
+        } catch (IOException | RuntimeException e) {
+            source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.error.provision_file", file, e.getMessage()).mergeStyle(TextFormatting.RED), true);
+            return 0;
+        }
+
+        // Allocate all islands in spiral order first and save them at once
+        List<Team> teams = new ArrayList<>();
+        Team spawn = data.getSpawn();
+        for (TeamProvisioner.Entry entry : entries) {
+            String name = entry.getName();
+            if (name == null) {
+                name = data.nextTeamName();
+            }
+
+            Pair<Boolean, String> result = SkyblockHooks.onManageCreateTeam(source, name, false);
+            if (result.getLeft()) {
+                continue;
+            }
+
+            Team team = data.allocateTeam(result.getRight(), entry.getTemplate());
+            if (team == null) {
+                source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.error.team_already_exist", result.getRight()).mergeStyle(TextFormatting.RED), true);
+                continue;
+            }
+
+            for (UUID id : entry.getPlayers()) {
+                if (!data.hasPlayerTeam(id)) {
+                    spawn.removePlayer(id);
+                    team.addPlayer(id);
+                }
+            }
+            teams.add(team);
+        }
+        data.getWorld().getSavedData().save();
+
+        source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.info.provision_allocated", teams.size(), entries.size() - teams.size()).mergeStyle(TextFormatting.GOLD), true);
+
+        // Load the chunks and paste the islands chunk by chunk spread over multiple ticks
+        PlayerList playerList = source.getServer().getPlayerList();
+        long start = System.nanoTime();
+        if (teams.isEmpty()) {
+            source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.success.provision", 0, "0.0", "0.0").mergeStyle(TextFormatting.GREEN), true);
+            return 1;
+        }
+
+        int[] done = new int[2]; // finished, placed
+        for (Team team : teams) {
+            IslandPlacer.schedule(data, team, null);
+            IslandPlacer.whenDone(team, (ready, placed) -> {
+                if (placed) {
+                    done[1]++;
+                    for (UUID id : ready.getPlayers()) {
+                        ServerPlayerEntity player = playerList.getPlayerByUUID(id);
+                        if (player != null) {
+                            WorldUtil.teleportToIsland(player, ready);
+                        }
+                    }
+                }
+
+                if (++done[0] == teams.size()) {
+                    double seconds = Math.max(System.nanoTime() - start, 1) / 1.0E9;
+                    source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.success.provision", done[1], String.format("%.1f", seconds), String.format("%.1f", done[1] / seconds * 60)).mergeStyle(TextFormatting.GREEN), true);
+                }
+            });
+        }
+
+        return 1;
+    }
+
     private static int deleteTeam(CommandSource source, String team) {
         ServerWorld world = source.getWorld();
         SkyblockSavedData data = SkyblockSavedData.get(world);
@@ -208,27 +304,30 @@ public class ManageCommand {
             return 0;
         }
         
-        ServerPlayerEntity added = null;
-        int i = 0;
-        for (ServerPlayerEntity addedPlayer : result.getRight()) {
-            if (!data.hasPlayerTeam(addedPlayer)) {
-                data.addPlayerToTeam(teamName, addedPlayer);
-                //noinspection ConstantConditions
-                WorldUtil.teleportToIsland(addedPlayer, island);
-                if (i == 0) added = addedPlayer;
-                i += 1;
+        List<ServerPlayerEntity> added = new ArrayList<>();
+        BulkJobScheduler.schedule(source, new TranslationTextComponent("skyblockbuilder.command.argument.add_players", island.getName()), result.getRight(), addedPlayer -> {
+            if (data.hasPlayerTeam(addedPlayer) || data.getTeam(island.getName()) != island) {
+                return false;
             }
-        }
 
-        if (i == 0) {
-            source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.error.no_player_added").mergeStyle(TextFormatting.RED), true);
-            return 0;
-        }
+            data.addPlayerToTeam(island, addedPlayer);
+            data.whenReady(island, ready -> {
+                if (!addedPlayer.hasDisconnected() && ready.hasPlayer(addedPlayer)) {
+                    WorldUtil.teleportToIsland(addedPlayer, ready);
+                }
+            });
+            added.add(addedPlayer);
+            return true;
+        }, i -> {
+            if (i == 0) {
+                source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.error.no_player_added").mergeStyle(TextFormatting.RED), true);
+            } else if (i == 1) {
+                source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.success.add_one_player", added.get(0).getDisplayName().getString(), island.getName()).mergeStyle(TextFormatting.GREEN), true);
+            } else {
+                source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.success.add_multiple_players", i, island.getName()).mergeStyle(TextFormatting.GREEN), true);
+            }
+        });
 
-        if (i == 1)
-            source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.success.add_one_player", added.getDisplayName().getString(), teamName).mergeStyle(TextFormatting.GREEN), true);
-        else
-            source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.success.add_multiple_players", i, teamName).mergeStyle(TextFormatting.GREEN), true);
         return 1;
     }
 
@@ -0,0 +1,48 @@
+package de.melanx.skyblockbuilder.commands.operator;
+
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import de.melanx.skyblockbuilder.metrics.Metric;
+import de.melanx.skyblockbuilder.metrics.Metrics;
+import net.minecraft.command.CommandSource;
+import net.minecraft.command.Commands;
+import net.minecraft.util.text.StringTextComponent;
+import net.minecraft.util.text.TextFormatting;
+import net.minecraft.util.text.TranslationTextComponent;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class MetricsCommand {
+
+    public static ArgumentBuilder<CommandSource, ?> register() {
+        // Shows all metrics in chat
+        return Commands.literal("metrics")
+                .executes(context -> showMetrics(context.getSource()))
+                // Writes all metrics in Prometheus text format
+                .then(Commands.literal("export")
+                        .executes(context -> exportMetrics(context.getSource())));
+    }
+
+    private static int showMetrics(CommandSource source) {
+        source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.info.metrics").mergeStyle(TextFormatting.GOLD), false);
+        for (Metric metric : Metrics.getMetrics()) {
+            String name = metric.getLabels().isEmpty() ? metric.getName() : metric.getName() + "{" + metric.getLabels() + "}";
+            source.sendFeedback(new StringTextComponent("- " + name + ": ").append(new StringTextComponent(metric.getSummary()).mergeStyle(TextFormatting.GREEN)), false);
+        }
+
+        return 1;
+    }
+
+    private static int exportMetrics(CommandSource source) {
+        Path file = Metrics.getExportFile(source.getServer());
+        try {
+            Metrics.writeFile(file, Metrics.toPrometheus());
+        } catch (IOException e) {
+            source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.error.metrics_export", e.getMessage()).mergeStyle(TextFormatting.RED), true);
+            return 0;
+        }
+
+        source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.success.metrics_export", file.toString()).mergeStyle(TextFormatting.GREEN), true);
+        return 1;
+    }
+}
@@ -0,0 +1,144 @@
+package de.melanx.skyblockbuilder.commands.operator;
+
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import de.melanx.skyblockbuilder.profiling.IslandProfiler;
+import de.melanx.skyblockbuilder.util.Team;
+import de.melanx.skyblockbuilder.world.IslandPos;
+import de.melanx.skyblockbuilder.world.data.SkyblockSavedData;
+import net.minecraft.command.CommandSource;
+import net.minecraft.command.Commands;
+import net.minecraft.util.text.ITextComponent;
+import net.minecraft.util.text.StringTextComponent;
+import net.minecraft.util.text.TextFormatting;
+import net.minecraft.util.text.TranslationTextComponent;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+public class ProfileCommand {
+
+    private static final int DEFAULT_COUNT = 10;
+
+    public static ArgumentBuilder<CommandSource, ?> register() {
+        // Shows the islands with the highest tick time
+        return Commands.literal("profile")
+                .executes(context -> showTop(context.getSource(), DEFAULT_COUNT))
+                .then(Commands.argument("count", IntegerArgumentType.integer(1, 100))
+                        .executes(context -> showTop(context.getSource(), IntegerArgumentType.getInteger(context, "count"))))
+                .then(Commands.literal("start")
+                        .executes(context -> start(context.getSource())))
+                .then(Commands.literal("stop")
+                        .executes(context -> stop(context.getSource())))
+                // Writes all islands to a csv file in the debug folder
+                .then(Commands.literal("dump")
+                        .executes(context -> dump(context.getSource())));
+    }
+
+    private static int start(CommandSource source) {
+        IslandProfiler.start();
+        source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.success.profiler_started").mergeStyle(TextFormatting.GREEN), true);
+        return 1;
+    }
+
+    private static int stop(CommandSource source) {
+        IslandProfiler.stop();
+        source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.success.profiler_stopped").mergeStyle(TextFormatting.GREEN), true);
+        return 1;
+    }
+
+    private static int showTop(CommandSource source, int count) {
+        IslandProfiler.Result result = getResult(source);
+        if (result == null) {
+            return 0;
+        }
+
+        SkyblockSavedData data = SkyblockSavedData.get(source.getServer().func_241755_D_());
+        source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.info.profiler_header", result.getTicks(), result.getMillis() / 1000,
+                format(result.getTotalNanos() / (double) result.getTicks() / 1000000)).mergeStyle(TextFormatting.GOLD), false);
+
+        List<IslandProfiler.Entry> entries = result.getEntries();
+        for (int i = 0; i < Math.min(count, entries.size()); i++) {
+            IslandProfiler.Entry entry = entries.get(i);
+            source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.info.profiler_entry", i + 1, getName(data, entry.getIsland()),
+                    format(result.getMillisPerTick(entry)), format(result.getPercent(entry))), false);
+        }
+
+        return 1;
+    }
+
+    private static int dump(CommandSource source) {
+        IslandProfiler.Result result = getResult(source);
+        if (result == null) {
+            return 0;
+        }
+
+        SkyblockSavedData data = SkyblockSavedData.get(source.getServer().func_241755_D_());
+        File file = source.getServer().getFile("debug/skyblockbuilder-islands-" + new SimpleDateFormat("yyyy-MM-dd_HH.mm.ss").format(new Date()) + ".csv");
+        try {
+            Files.createDirectories(file.toPath().getParent());
+            try (Writer writer = Files.newBufferedWriter(file.toPath())) {
+                writer.write("team,island_x,island_z,nanos,ms_per_tick,percent\n");
+                for (IslandProfiler.Entry entry : result.getEntries()) {
+                    IslandPos island = entry.getIsland();
+                    Team team = island == null ? null : data.getTeamFromIsland(island);
+                    writer.write((team == null ? "" : escape(team.getName())) + ","
+                            + (island == null ? "" : island.getX()) + ","
+                            + (island == null ? "" : island.getZ()) + ","
+                            + entry.getNanos() + ","
+                            + format(result.getMillisPerTick(entry)) + ","
+                            + format(result.getPercent(entry)) + "\n");
+                }
+            }
+        } catch (IOException e) {
+            source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.error.profiler_dump", e.getMessage()).mergeStyle(TextFormatting.RED), true);
+            return 0;
+        }
+
+        source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.success.profiler_dump", file.getPath()).mergeStyle(TextFormatting.GREEN), true);
+        return 1;
+    }
+
+    @Nullable
+    private static IslandProfiler.Result getResult(CommandSource source) {
+        IslandProfiler.Result result = IslandProfiler.getResult();
+        if (result == null || result.getTicks() == 0) {
+            source.sendFeedback(new TranslationTextComponent(IslandProfiler.isRunning() ? "skyblockbuilder.command.info.profiler_no_data" : "skyblockbuilder.command.error.profiler_not_running").mergeStyle(TextFormatting.RED), false);
+            return null;
+        }
+
+        return result;
+    }
+
+    static ITextComponent getName(SkyblockSavedData data, @Nullable IslandPos island) {
+        if (island == null) {
+            return new TranslationTextComponent("skyblockbuilder.command.argument.unattributed").mergeStyle(TextFormatting.GRAY);
+        }
+
+        Team team = data.getTeamFromIsland(island);
+        if (team == null) {
+            return new TranslationTextComponent("skyblockbuilder.command.argument.island", island.getX(), island.getZ()).mergeStyle(TextFormatting.GRAY);
+        }
+
+        return new StringTextComponent(team.getName()).mergeStyle(TextFormatting.GREEN);
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private static String escape(String value) {
+        if (value.contains(",") || value.contains("\"")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,28 @@
+package de.melanx.skyblockbuilder.events;
+
+import de.melanx.skyblockbuilder.util.Team;
+import net.minecraftforge.eventbus.api.Event;
+
+/*
+ * Fired on the server thread when an island starts or stops hibernating. Mods with own
+ * chunk loaders can use this to release and restore their tickets for the island.
+ */
+public class SkyblockHibernateEvent extends Event {
+
+    private final Team team;
+    private final boolean hibernating;
+
+    public SkyblockHibernateEvent(Team team, boolean hibernating) {
+        this.team = team;
+        this.hibernating = hibernating;
+    }
+
+    public Team getTeam() {
+        return this.team;
+    }
+
+    // True if the island starts hibernating, false if it wakes up
+    public boolean isHibernating() {
+        return this.hibernating;
+    }
+}
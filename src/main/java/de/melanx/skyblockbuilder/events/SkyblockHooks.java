@@ -91,6 +91,14 @@ public class SkyblockHooks {
         return MinecraftForge.EVENT_BUS.post(event);
     }
     
+    public static void onIslandReady(Team team) {
+        MinecraftForge.EVENT_BUS.post(new SkyblockIslandReadyEvent(team));
+    }
+    
+    public static void onHibernate(Team team, boolean hibernating) {
+        MinecraftForge.EVENT_BUS.post(new SkyblockHibernateEvent(team, hibernating));
+    }
+    
     public static Event.Result onHome(ServerPlayerEntity player, Team team) {
         SkyblockTeleportHomeEvent event = new SkyblockTeleportHomeEvent(player, team);
         MinecraftForge.EVENT_BUS.post(event);
@@ -107,6 +115,11 @@ public class SkyblockHooks {
         return MinecraftForge.EVENT_BUS.post(event);
     }
     
+    public static boolean onManageResetIsland(CommandSource source, Team team) {
+        SkyblockOpManageEvent.ResetIsland event = new SkyblockOpManageEvent.ResetIsland(source, team);
+        return MinecraftForge.EVENT_BUS.post(event);
+    }
+    
     public static Pair<Boolean, String> onManageCreateTeam(CommandSource source, String name, boolean join) {
         SkyblockOpManageEvent.CreateTeam event = new SkyblockOpManageEvent.CreateTeam(source, name, join);
         boolean canceled = MinecraftForge.EVENT_BUS.post(event);
@@ -0,0 +1,20 @@
+package de.melanx.skyblockbuilder.events;
+
+import de.melanx.skyblockbuilder.util.Team;
+import net.minecraftforge.eventbus.api.Event;
+
+/*
+ * Fired on the server thread once the island of a team is completely placed.
+ */
+public class SkyblockIslandReadyEvent extends Event {
+
+    private final Team team;
+
+    public SkyblockIslandReadyEvent(Team team) {
+        this.team = team;
+    }
+
+    public Team getTeam() {
+        return this.team;
+    }
+}
@@ -54,6 +54,20 @@ public abstract class SkyblockOpManageEvent extends Event {
         }
     }
     
+    public static class ResetIsland extends SkyblockOpManageEvent {
+
+        private final Team team;
+
+        public ResetIsland(CommandSource source, Team team) {
+            super(source);
+            this.team = team;
+        }
+
+        public Team getTeam() {
+            return this.team;
+        }
+    }
+    
     public static class CreateTeam extends SkyblockOpManageEvent {
 
         private String name;
@@ -0,0 +1,39 @@
+package de.melanx.skyblockbuilder.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class Counter extends Metric {
+
+    private final LongAdder value = new LongAdder();
+
+    public Counter(String name, String labels, String help) {
+        super(name, labels, help);
+    }
+
+    public void inc() {
+        this.value.increment();
+    }
+
+    public void add(long amount) {
+        this.value.add(amount);
+    }
+
+    public long get() {
+        return this.value.sum();
+    }
+
+    @Override
+    public String getType() {
+        return "counter";
+    }
+
+    @Override
+    public void write(StringBuilder builder) {
+        this.writeSample(builder, "", "", Long.toString(this.get()));
+    }
+
+    @Override
+    public String getSummary() {
+        return Long.toString(this.get());
+    }
+}
@@ -0,0 +1,39 @@
+package de.melanx.skyblockbuilder.metrics;
+
+import javax.annotation.Nullable;
+import java.util.function.LongSupplier;
+
+// The value is read when exporting, e.g. the number of teams in the saved data
+public class Gauge extends Metric {
+
+    @Nullable
+    private volatile LongSupplier supplier;
+
+    public Gauge(String name, String labels, String help) {
+        super(name, labels, help);
+    }
+
+    public void setSupplier(@Nullable LongSupplier supplier) {
+        this.supplier = supplier;
+    }
+
+    public long get() {
+        LongSupplier supplier = this.supplier;
+        return supplier == null ? 0 : supplier.getAsLong();
+    }
+
+    @Override
+    public String getType() {
+        return "gauge";
+    }
+
+    @Override
+    public void write(StringBuilder builder) {
+        this.writeSample(builder, "", "", Long.toString(this.get()));
+    }
+
+    @Override
+    public String getSummary() {
+        return Long.toString(this.get());
+    }
+}
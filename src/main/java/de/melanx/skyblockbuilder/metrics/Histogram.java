@@ -0,0 +1,88 @@
+package de.melanx.skyblockbuilder.metrics;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Histogram extends Metric {
+
+    private final double[] buckets;
+    private final LongAdder[] counts;
+    private final LongAdder count = new LongAdder();
+    private final DoubleAdder sum = new DoubleAdder();
+
+    // The buckets are the sorted upper bounds, +Inf is added automatically
+    public Histogram(String name, String labels, String help, double... buckets) {
+        super(name, labels, help);
+        this.buckets = buckets;
+        this.counts = new LongAdder[buckets.length + 1];
+        for (int i = 0; i < this.counts.length; i++) {
+            this.counts[i] = new LongAdder();
+        }
+    }
+
+    public void observe(double value) {
+        int i = 0;
+        while (i < this.buckets.length && value > this.buckets[i]) {
+            i++;
+        }
+
+        this.counts[i].increment();
+        this.count.increment();
+        this.sum.add(value);
+    }
+
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    public double getSum() {
+        return this.sum.sum();
+    }
+
+    // Upper bound of the bucket containing the given quantile
+    public double getQuantile(double quantile) {
+        long total = this.getCount();
+        long seen = 0;
+        for (int i = 0; i < this.buckets.length; i++) {
+            seen += this.counts[i].sum();
+            if (seen >= quantile * total) {
+                return this.buckets[i];
+            }
+        }
+
+        return Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public String getType() {
+        return "histogram";
+    }
+
+    @Override
+    public void write(StringBuilder builder) {
+        long cumulative = 0;
+        for (int i = 0; i < this.buckets.length; i++) {
+            cumulative += this.counts[i].sum();
+            this.writeSample(builder, "_bucket", "le=\"" + format(this.buckets[i]) + "\"", Long.toString(cumulative));
+        }
+        cumulative += this.counts[this.buckets.length].sum();
+        this.writeSample(builder, "_bucket", "le=\"+Inf\"", Long.toString(cumulative));
+        this.writeSample(builder, "_sum", "", format(this.getSum()));
+        this.writeSample(builder, "_count", "", Long.toString(cumulative));
+    }
+
+    @Override
+    public String getSummary() {
+        long count = this.getCount();
+        return String.format(Locale.ROOT, "count %d, avg %.1f, p99 <= %s", count, count == 0 ? 0 : this.getSum() / count, format(this.getQuantile(0.99)));
+    }
+
+    protected static String format(double value) {
+        if (value == Double.POSITIVE_INFINITY) {
+            return "+Inf";
+        }
+
+        return value == Math.rint(value) ? Long.toString((long) value) : Double.toString(value);
+    }
+}
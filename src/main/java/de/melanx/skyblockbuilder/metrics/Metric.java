@@ -0,0 +1,50 @@
+package de.melanx.skyblockbuilder.metrics;
+
+/*
+ * A metric which can be written in the Prometheus text format.
+ * Metrics with the same name but different labels share the HELP and TYPE lines.
+ */
+public abstract class Metric {
+
+    private final String name;
+    private final String labels;
+    private final String help;
+
+    protected Metric(String name, String labels, String help) {
+        this.name = name;
+        this.labels = labels;
+        this.help = help;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public String getLabels() {
+        return this.labels;
+    }
+
+    public String getHelp() {
+        return this.help;
+    }
+
+    public abstract String getType();
+
+    // Appends all samples of this metric
+    public abstract void write(StringBuilder builder);
+
+    // Short human readable value for chat
+    public abstract String getSummary();
+
+    protected void writeSample(StringBuilder builder, String suffix, String extraLabel, String value) {
+        builder.append(this.name).append(suffix);
+        if (!this.labels.isEmpty() || !extraLabel.isEmpty()) {
+            builder.append('{').append(this.labels);
+            if (!this.labels.isEmpty() && !extraLabel.isEmpty()) {
+                builder.append(',');
+            }
+            builder.append(extraLabel).append('}');
+        }
+        builder.append(' ').append(value).append('\n');
+    }
+}
@@ -0,0 +1,129 @@
+package de.melanx.skyblockbuilder.metrics;
+
+import de.melanx.skyblockbuilder.ConfigHandler;
+import de.melanx.skyblockbuilder.SkyblockBuilder;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.Util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Registry of all metrics. Everything is backed by adders, so recording is safe from
+ * world generation threads and never blocks.
+ */
+public class Metrics {
+
+    private static final List<Metric> METRICS = new ArrayList<>();
+
+    public static final Timer ISLAND_ALLOCATION = register(new Timer("skyblockbuilder_island_allocation_seconds", "",
+            "Time to register a team and find its island position"));
+    public static final Timer ISLAND_CHUNK_LOAD = register(new Timer("skyblockbuilder_island_chunk_load_seconds", "",
+            "Time to load or generate the chunks of a new island"));
+    public static final Timer ISLAND_PASTE = register(new Timer("skyblockbuilder_island_paste_seconds", "",
+            "Time to paste the island template"));
+    public static final Timer TELEPORT = register(new Timer("skyblockbuilder_teleport_seconds", "",
+            "Time to find a valid spawn and teleport a player to an island"));
+
+    public static final Timer SAVE = register(new Timer("skyblockbuilder_save_seconds", "",
+            "Time to write the skyblock saved data"));
+    public static final Histogram SAVE_BYTES = register(new Histogram("skyblockbuilder_save_bytes", "",
+            "Size of the compressed skyblock saved data",
+            1024, 4096, 16384, 65536, 262144, 1048576, 4194304, 16777216, 67108864));
+
+    public static final Timer OVERWORLD_SURFACE = register(generatorTimer("overworld", "surface"));
+    public static final Timer OVERWORLD_DECORATION = register(generatorTimer("overworld", "decoration"));
+    public static final Timer NETHER_DECORATION = register(generatorTimer("nether", "decoration"));
+    public static final Timer END_SURFACE = register(generatorTimer("end", "surface"));
+    public static final Timer END_NOISE = register(generatorTimer("end", "noise"));
+
+    public static final Gauge TEAMS = register(new Gauge("skyblockbuilder_teams", "",
+            "Number of teams without spawn"));
+    public static final Gauge PENDING_INVITES = register(new Gauge("skyblockbuilder_pending_invites", "",
+            "Number of invitations which are not accepted yet"));
+    public static final Counter INVITES_SENT = register(new Counter("skyblockbuilder_invites_sent_total", "",
+            "Number of sent invitations"));
+    public static final Counter INVITES_ACCEPTED = register(new Counter("skyblockbuilder_invites_accepted_total", "",
+            "Number of accepted invitations"));
+    public static final Histogram TEAM_BROADCAST_RECIPIENTS = register(new Histogram("skyblockbuilder_team_broadcast_recipients", "",
+            "Online players receiving a team message", 1, 2, 4, 8, 16, 32, 64));
+
+    private static long lastExport;
+
+    private static <T extends Metric> T register(T metric) {
+        METRICS.add(metric);
+        return metric;
+    }
+
+    private static Timer generatorTimer(String generator, String stage) {
+        return new Timer("skyblockbuilder_generator_seconds", "generator=\"" + generator + "\",stage=\"" + stage + "\"",
+                "Time per chunk in the skyblock chunk generators");
+    }
+
+    public static List<Metric> getMetrics() {
+        return Collections.unmodifiableList(METRICS);
+    }
+
+    public static String toPrometheus() {
+        StringBuilder builder = new StringBuilder();
+        Set<String> described = new HashSet<>();
+        for (Metric metric : METRICS) {
+            if (described.add(metric.getName())) {
+                builder.append("# HELP ").append(metric.getName()).append(' ').append(metric.getHelp()).append('\n');
+                builder.append("# TYPE ").append(metric.getName()).append(' ').append(metric.getType()).append('\n');
+            }
+            metric.write(builder);
+        }
+
+        return builder.toString();
+    }
+
+    // Replaces the file at once so collectors never read a partial file
+    public static void writeFile(Path file, String text) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = parent.resolve(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            writer.write(text);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static Path getExportFile(MinecraftServer server) {
+        return server.getFile(ConfigHandler.metricsFile.get()).toPath();
+    }
+
+    // Called once at the end of each server tick
+    public static void tick(MinecraftServer server) {
+        int interval = ConfigHandler.metricsInterval.get();
+        if (interval <= 0) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - lastExport < interval * 1000L) {
+            return;
+        }
+        lastExport = now;
+
+        // Gauges read the saved data, so the text is built on the server thread
+        String text = toPrometheus();
+        Path file = getExportFile(server);
+        Util.getServerExecutor().execute(() -> {
+            try {
+                writeFile(file, text);
+            } catch (IOException e) {
+                SkyblockBuilder.LOGGER.warn("Could not export metrics to " + file, e);
+            }
+        });
+    }
+}
@@ -0,0 +1,29 @@
+package de.melanx.skyblockbuilder.metrics;
+
+import java.util.Locale;
+
+// Histogram of durations in seconds
+public class Timer extends Histogram {
+
+    private static final double[] BUCKETS = {0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+
+    public Timer(String name, String labels, String help) {
+        super(name, labels, help, BUCKETS);
+    }
+
+    public void record(long nanos) {
+        this.observe(nanos / 1.0E9);
+    }
+
+    public void observeSince(long startNanos) {
+        this.record(System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public String getSummary() {
+        long count = this.getCount();
+        double p99 = this.getQuantile(0.99);
+        return String.format(Locale.ROOT, "count %d, avg %.2f ms, p99 <= %s ms", count, count == 0 ? 0 : this.getSum() * 1000 / count,
+                p99 == Double.POSITIVE_INFINITY ? "+Inf" : String.format(Locale.ROOT, "%.1f", p99 * 1000));
+    }
+}
@@ -0,0 +1,75 @@
+package de.melanx.skyblockbuilder.profiling;
+
+import de.melanx.skyblockbuilder.profiling.jfr.CreateTeamEvent;
+import de.melanx.skyblockbuilder.profiling.jfr.GeneratorStageEvent;
+import de.melanx.skyblockbuilder.profiling.jfr.SaveEvent;
+import de.melanx.skyblockbuilder.profiling.jfr.TeleportEvent;
+
+import javax.annotation.Nullable;
+
+/*
+ * Emits Java Flight Recorder events if the JVM supports JFR.
+ *
+ * The event classes are only loaded if jdk.jfr is available, that's why the events are
+ * passed around as Object. If JFR isn't recording, start methods return null and nothing is committed.
+ * Each event class checks its cached EventType first, so no event object is created in that case.
+ *
+ * jdk.jfr is part of JDK 11+ and JDK 8u262+, so the mod has to be compiled with one of those.
+ */
+public class FlightRecorder {
+
+    private static final boolean AVAILABLE = isAvailable();
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    @Nullable
+    public static Object startCreateTeam() {
+        return AVAILABLE ? CreateTeamEvent.start() : null;
+    }
+
+    public static void finishCreateTeam(@Nullable Object event, String team, long placement) {
+        if (event != null) {
+            ((CreateTeamEvent) event).finish(team, placement);
+        }
+    }
+
+    @Nullable
+    public static Object startTeleport() {
+        return AVAILABLE ? TeleportEvent.start() : null;
+    }
+
+    public static void finishTeleport(@Nullable Object event, String player, String team, int iterations, int chunkLoads) {
+        if (event != null) {
+            ((TeleportEvent) event).finish(player, team, iterations, chunkLoads);
+        }
+    }
+
+    @Nullable
+    public static Object startSave() {
+        return AVAILABLE ? SaveEvent.start() : null;
+    }
+
+    public static void finishSave(@Nullable Object event, int teams) {
+        if (event != null) {
+            ((SaveEvent) event).finish(teams);
+        }
+    }
+
+    @Nullable
+    public static Object startGeneratorStage() {
+        return AVAILABLE ? GeneratorStageEvent.start() : null;
+    }
+
+    public static void finishGeneratorStage(@Nullable Object event, String generator, String stage, int chunkX, int chunkZ) {
+        if (event != null) {
+            ((GeneratorStageEvent) event).finish(generator, stage, chunkX, chunkZ);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package de.melanx.skyblockbuilder.profiling;
+
+import de.melanx.skyblockbuilder.ConfigHandler;
+import de.melanx.skyblockbuilder.world.IslandPos;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.server.ServerWorld;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * Attributes the tick time of the skyblock world to islands. Only used on the server thread.
+ *
+ * The numbers are approximate. Forge only fires an event when a living entity starts its tick and
+ * none after it, so the time between two of these events is counted for the island of the first
+ * entity. That time also contains non-living entities like items, minecarts and projectiles which
+ * ticked in between, wherever they are. Everything before the first entity (mostly chunk ticking)
+ * is split by players on each island, everything after the last entity (mostly tile entities) is
+ * split by ticking tile entities on each island.
+ */
+public class IslandProfiler {
+
+    public static final long UNATTRIBUTED = Long.MIN_VALUE;
+    private static final int RECOUNT_INTERVAL = 20;
+
+    // Completed ticks are flushed into the window
+    private static final Long2LongOpenHashMap WINDOW = new Long2LongOpenHashMap();
+    private static long windowTicks;
+    private static long windowStart;
+    private static Result lastWindow;
+    private static boolean running;
+
+    private static final Long2LongOpenHashMap TICK = new Long2LongOpenHashMap();
+    private static final Long2IntOpenHashMap PLAYERS = new Long2IntOpenHashMap();
+    private static final Long2IntOpenHashMap TILE_ENTITIES = new Long2IntOpenHashMap();
+    private static ServerWorld world;
+    private static long marker;
+    private static long markerIsland;
+    private static boolean entityTicked;
+    private static int players;
+    private static int tileEntities;
+    private static int ticks;
+
+    public static void start() {
+        reset();
+        running = true;
+    }
+
+    public static void stop() {
+        running = false;
+        world = null;
+    }
+
+    public static void reset() {
+        WINDOW.clear();
+        windowTicks = 0;
+        windowStart = System.currentTimeMillis();
+        lastWindow = null;
+        ticks = 0;
+    }
+
+    public static boolean isRunning() {
+        return running;
+    }
+
+    public static void onWorldTickStart(ServerWorld world) {
+        if (!running) {
+            return;
+        }
+
+        IslandProfiler.world = world;
+        if (ticks++ % RECOUNT_INTERVAL == 0) {
+            countWeights(world);
+        }
+
+        entityTicked = false;
+        marker = System.nanoTime();
+    }
+
+    public static void onEntityTick(Entity entity) {
+        if (world == null || entity.world != world) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        if (entityTicked) {
+            TICK.addTo(markerIsland, now - marker);
+        } else {
+            distribute(now - marker, PLAYERS, players);
+            entityTicked = true;
+        }
+
+        markerIsland = IslandPos.toLong(IslandPos.toIslandCoord(MathHelper.floor(entity.getPosX())), IslandPos.toIslandCoord(MathHelper.floor(entity.getPosZ())));
+        marker = now;
+    }
+
+    public static void onWorldTickEnd(ServerWorld world) {
+        if (IslandProfiler.world != world) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        distribute(now - marker, entityTicked ? TILE_ENTITIES : PLAYERS, entityTicked ? tileEntities : players);
+        IslandProfiler.world = null;
+
+        for (Long2LongMap.Entry entry : TICK.long2LongEntrySet()) {
+            WINDOW.addTo(entry.getLongKey(), entry.getLongValue());
+        }
+        TICK.clear();
+        windowTicks++;
+
+        long millis = System.currentTimeMillis();
+        if (millis - windowStart >= ConfigHandler.profilerWindow.get() * 1000L) {
+            lastWindow = snapshot(millis);
+            WINDOW.clear();
+            windowTicks = 0;
+            windowStart = millis;
+        }
+    }
+
+    // The last completed window, or the current one if there is none yet
+    @Nullable
+    public static Result getResult() {
+        Result result = lastWindow;
+        if (result != null) {
+            return result;
+        }
+
+        return windowTicks == 0 ? null : snapshot(System.currentTimeMillis());
+    }
+
+    private static void countWeights(ServerWorld world) {
+        PLAYERS.clear();
+        players = 0;
+        for (ServerPlayerEntity player : world.getPlayers()) {
+            PLAYERS.addTo(island(player.getPosition()), 1);
+            players++;
+        }
+
+        TILE_ENTITIES.clear();
+        tileEntities = 0;
+        for (TileEntity tile : world.tickableTileEntities) {
+            TILE_ENTITIES.addTo(island(tile.getPos()), 1);
+            tileEntities++;
+        }
+    }
+
+    private static void distribute(long nanos, Long2IntOpenHashMap weights, int total) {
+        if (total == 0) {
+            TICK.addTo(UNATTRIBUTED, nanos);
+            return;
+        }
+
+        for (Long2IntMap.Entry entry : weights.long2IntEntrySet()) {
+            TICK.addTo(entry.getLongKey(), nanos * entry.getIntValue() / total);
+        }
+    }
+
+    private static long island(BlockPos pos) {
+        return IslandPos.toLong(IslandPos.toIslandCoord(pos.getX()), IslandPos.toIslandCoord(pos.getZ()));
+    }
+
+    private static Result snapshot(long millis) {
+        List<Entry> entries = new ArrayList<>();
+        long total = 0;
+        for (Long2LongMap.Entry entry : WINDOW.long2LongEntrySet()) {
+            entries.add(new Entry(entry.getLongKey(), entry.getLongValue()));
+            total += entry.getLongValue();
+        }
+        entries.sort((e1, e2) -> Long.compare(e2.nanos, e1.nanos));
+
+        return new Result(Collections.unmodifiableList(entries), windowTicks, total, millis - windowStart);
+    }
+
+    public static class Result {
+
+        private final List<Entry> entries;
+        private final long ticks;
+        private final long totalNanos;
+        private final long millis;
+
+        private Result(List<Entry> entries, long ticks, long totalNanos, long millis) {
+            this.entries = entries;
+            this.ticks = ticks;
+            this.totalNanos = totalNanos;
+            this.millis = millis;
+        }
+
+        // Sorted by nanos, most expensive first
+        public List<Entry> getEntries() {
+            return this.entries;
+        }
+
+        public long getTicks() {
+            return this.ticks;
+        }
+
+        public long getTotalNanos() {
+            return this.totalNanos;
+        }
+
+        public long getMillis() {
+            return this.millis;
+        }
+
+        public double getMillisPerTick(Entry entry) {
+            return this.ticks == 0 ? 0 : entry.nanos / (double) this.ticks / 1000000;
+        }
+
+        public double getPercent(Entry entry) {
+            return this.totalNanos == 0 ? 0 : entry.nanos * 100d / this.totalNanos;
+        }
+    }
+
+    public static class Entry {
+
+        private final long island;
+        private final long nanos;
+
+        private Entry(long island, long nanos) {
+            this.island = island;
+            this.nanos = nanos;
+        }
+
+        @Nullable
+        public IslandPos getIsland() {
+            return this.island == UNATTRIBUTED ? null : IslandPos.fromLong(this.island);
+        }
+
+        public long getNanos() {
+            return this.nanos;
+        }
+    }
+}
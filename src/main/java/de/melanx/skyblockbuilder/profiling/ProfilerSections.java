@@ -0,0 +1,59 @@
+package de.melanx.skyblockbuilder.profiling;
+
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import com.mojang.brigadier.tree.CommandNode;
+import de.melanx.skyblockbuilder.SkyblockBuilder;
+import net.minecraft.command.CommandSource;
+import net.minecraft.profiler.IProfiler;
+
+/*
+ * Pushes the work of this mod into named sections of the vanilla profiler, so it shows up
+ * as skyblockbuilder/<section> in /debug reports. Every push needs a pop, use try/finally.
+ */
+public class ProfilerSections {
+
+    public static void push(IProfiler profiler, String section) {
+        profiler.startSection(SkyblockBuilder.MODID);
+        profiler.startSection(section);
+    }
+
+    public static void pop(IProfiler profiler) {
+        profiler.endSection();
+        profiler.endSection();
+    }
+
+    // Rebuilds the command tree so that each subcommand runs in skyblockbuilder/command/<subcommand>
+    public static CommandNode<CommandSource> wrapCommands(CommandNode<CommandSource> root) {
+        ArgumentBuilder<CommandSource, ?> builder = root.createBuilder();
+        for (CommandNode<CommandSource> child : root.getChildren()) {
+            builder.then(wrap(child, child.getName()));
+        }
+
+        return builder.build();
+    }
+
+    private static CommandNode<CommandSource> wrap(CommandNode<CommandSource> node, String section) {
+        ArgumentBuilder<CommandSource, ?> builder = node.createBuilder();
+        Command<CommandSource> command = node.getCommand();
+        if (command != null) {
+            builder.executes(context -> {
+                IProfiler profiler = context.getSource().getServer().getProfiler();
+                push(profiler, "command");
+                profiler.startSection(section);
+                try {
+                    return command.run(context);
+                } finally {
+                    profiler.endSection();
+                    pop(profiler);
+                }
+            });
+        }
+
+        for (CommandNode<CommandSource> child : node.getChildren()) {
+            builder.then(wrap(child, section));
+        }
+
+        return builder.build();
+    }
+}
@@ -0,0 +1,39 @@
+package de.melanx.skyblockbuilder.profiling.jfr;
+
+import jdk.jfr.*;
+
+import javax.annotation.Nullable;
+
+@Name("skyblockbuilder.CreateTeam")
+@Label("Create Team")
+@Category("Skyblock Builder")
+@Description("A team was created and its island placed")
+@StackTrace(false)
+public class CreateTeamEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(CreateTeamEvent.class);
+
+    @Label("Team")
+    private String team;
+
+    @Label("Template Placement")
+    @Timespan(Timespan.NANOSECONDS)
+    private long placement;
+
+    @Nullable
+    public static CreateTeamEvent start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+
+        CreateTeamEvent event = new CreateTeamEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String team, long placement) {
+        this.team = team;
+        this.placement = placement;
+        this.commit();
+    }
+}
@@ -0,0 +1,46 @@
+package de.melanx.skyblockbuilder.profiling.jfr;
+
+import jdk.jfr.*;
+
+import javax.annotation.Nullable;
+
+@Name("skyblockbuilder.GeneratorStage")
+@Label("Generator Stage")
+@Category("Skyblock Builder")
+@Description("A stage of a skyblock chunk generator ran for a chunk")
+@StackTrace(false)
+public class GeneratorStageEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(GeneratorStageEvent.class);
+
+    @Label("Generator")
+    private String generator;
+
+    @Label("Stage")
+    private String stage;
+
+    @Label("Chunk X")
+    private int chunkX;
+
+    @Label("Chunk Z")
+    private int chunkZ;
+
+    @Nullable
+    public static GeneratorStageEvent start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+
+        GeneratorStageEvent event = new GeneratorStageEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String generator, String stage, int chunkX, int chunkZ) {
+        this.generator = generator;
+        this.stage = stage;
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.commit();
+    }
+}
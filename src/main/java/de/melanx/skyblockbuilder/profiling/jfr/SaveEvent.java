@@ -0,0 +1,34 @@
+package de.melanx.skyblockbuilder.profiling.jfr;
+
+import jdk.jfr.*;
+
+import javax.annotation.Nullable;
+
+@Name("skyblockbuilder.Save")
+@Label("Write Saved Data")
+@Category("Skyblock Builder")
+@Description("The skyblock saved data was serialized")
+@StackTrace(false)
+public class SaveEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(SaveEvent.class);
+
+    @Label("Teams")
+    private int teams;
+
+    @Nullable
+    public static SaveEvent start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+
+        SaveEvent event = new SaveEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(int teams) {
+        this.teams = teams;
+        this.commit();
+    }
+}
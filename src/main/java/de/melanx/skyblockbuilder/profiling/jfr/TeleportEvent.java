@@ -0,0 +1,46 @@
+package de.melanx.skyblockbuilder.profiling.jfr;
+
+import jdk.jfr.*;
+
+import javax.annotation.Nullable;
+
+@Name("skyblockbuilder.Teleport")
+@Label("Teleport To Island")
+@Category("Skyblock Builder")
+@Description("A player was teleported to an island")
+@StackTrace(false)
+public class TeleportEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(TeleportEvent.class);
+
+    @Label("Player")
+    private String player;
+
+    @Label("Team")
+    private String team;
+
+    @Label("Spawn Search Iterations")
+    private int iterations;
+
+    @Label("Chunks Loaded Synchronously")
+    private int chunkLoads;
+
+    @Nullable
+    public static TeleportEvent start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+
+        TeleportEvent event = new TeleportEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String player, String team, int iterations, int chunkLoads) {
+        this.player = player;
+        this.team = team;
+        this.iterations = iterations;
+        this.chunkLoads = chunkLoads;
+        this.commit();
+    }
+}
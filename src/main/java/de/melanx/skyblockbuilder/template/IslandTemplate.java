@@ -0,0 +1,46 @@
+package de.melanx.skyblockbuilder.template;
+
+import com.google.common.collect.ImmutableList;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.gen.feature.template.Template;
+
+import java.util.List;
+
+public class IslandTemplate {
+
+    // Used as long as no template is loaded, e.g. outside of a running server
+    public static final IslandTemplate EMPTY = new IslandTemplate("empty", new Template(), ImmutableList.of());
+
+    private final String name;
+    private final Template template;
+    private final List<BlockPos> spawns;
+    private final PlacementPlan plan;
+
+    public IslandTemplate(String name, Template template, List<BlockPos> spawns) {
+        this.name = name;
+        this.template = template;
+        this.spawns = ImmutableList.copyOf(spawns);
+        this.plan = PlacementPlan.create(template);
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public Template getTemplate() {
+        return this.template;
+    }
+
+    public BlockPos getSize() {
+        return this.template.getSize();
+    }
+
+    // Relative to the island center
+    public List<BlockPos> getSpawns() {
+        return this.spawns;
+    }
+
+    public PlacementPlan getPlan() {
+        return this.plan;
+    }
+}
@@ -0,0 +1,188 @@
+package de.melanx.skyblockbuilder.template;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.entity.EntityType;
+import net.minecraft.inventory.IClearable;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.DoubleNBT;
+import net.minecraft.nbt.ListNBT;
+import net.minecraft.tileentity.LockableLootTileEntity;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.vector.Vector3d;
+import net.minecraft.world.gen.feature.template.Template;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraftforge.common.util.Constants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/*
+ * A template split into the chunks it is pasted into, created once when the template is loaded.
+ * Island centers are multiples of IslandPos.SPACING, so the chunk of each block relative to the
+ * center is the same for every island. Blocks of a chunk are sorted bottom to top, so writes
+ * stay within one chunk section as long as possible.
+ */
+public class PlacementPlan {
+
+    private final List<ChunkBatch> chunks;
+    private final List<Template.EntityInfo> entities;
+
+    private PlacementPlan(List<ChunkBatch> chunks, List<Template.EntityInfo> entities) {
+        this.chunks = chunks;
+        this.entities = entities;
+    }
+
+    public static PlacementPlan create(Template template) {
+        Long2ObjectMap<List<Template.BlockInfo>> byChunk = new Long2ObjectOpenHashMap<>();
+        if (!template.blocks.isEmpty()) {
+            for (Template.BlockInfo info : template.blocks.get(0).func_237157_a_()) {
+                if (info.state.isIn(Blocks.STRUCTURE_VOID)) {
+                    continue;
+                }
+
+                byChunk.computeIfAbsent(ChunkPos.asLong(info.pos.getX() >> 4, info.pos.getZ() >> 4), key -> new ArrayList<>()).add(info);
+            }
+        }
+
+        List<ChunkBatch> chunks = new ArrayList<>(byChunk.size());
+        for (Long2ObjectMap.Entry<List<Template.BlockInfo>> entry : byChunk.long2ObjectEntrySet()) {
+            List<Template.BlockInfo> infos = entry.getValue();
+            infos.sort(Comparator.comparingInt((Template.BlockInfo info) -> info.pos.getY()));
+            chunks.add(new ChunkBatch(ChunkPos.getX(entry.getLongKey()), ChunkPos.getZ(entry.getLongKey()), infos));
+        }
+        chunks.sort(Comparator.comparingInt((ChunkBatch batch) -> batch.chunkX).thenComparingInt(batch -> batch.chunkZ));
+
+        return new PlacementPlan(Collections.unmodifiableList(chunks), Collections.unmodifiableList(new ArrayList<>(template.entities)));
+    }
+
+    public int getChunkCount() {
+        return this.chunks.size();
+    }
+
+    // Chunk position of the given batch when the template is pasted at the center
+    public ChunkPos getChunk(BlockPos center, int index) {
+        ChunkBatch batch = this.chunks.get(index);
+        return new ChunkPos((center.getX() >> 4) + batch.chunkX, (center.getZ() >> 4) + batch.chunkZ);
+    }
+
+    public void place(ServerWorld world, BlockPos center, Random random) {
+        for (int i = 0; i < this.chunks.size(); i++) {
+            this.placeChunk(world, center, i, random);
+        }
+        this.placeEntities(world, center);
+    }
+
+    public void placeChunk(ServerWorld world, BlockPos center, int index, Random random) {
+        this.chunks.get(index).place(world, center, random);
+    }
+
+    public void placeEntities(ServerWorld world, BlockPos center) {
+        for (Template.EntityInfo info : this.entities) {
+            CompoundNBT nbt = info.nbt.copy();
+            Vector3d pos = info.pos.add(center.getX(), center.getY(), center.getZ());
+            ListNBT posTag = new ListNBT();
+            posTag.add(DoubleNBT.valueOf(pos.x));
+            posTag.add(DoubleNBT.valueOf(pos.y));
+            posTag.add(DoubleNBT.valueOf(pos.z));
+            nbt.put("Pos", posTag);
+            nbt.remove("UUID");
+
+            EntityType.loadEntityUnchecked(nbt, world).ifPresent(entity -> {
+                entity.setLocationAndAngles(pos.x, pos.y, pos.z, entity.rotationYaw, entity.rotationPitch);
+                world.func_242417_l(entity);
+            });
+        }
+    }
+
+    private static class ChunkBatch {
+
+        private final int chunkX;
+        private final int chunkZ;
+        // Blocks without tile entity, positions relative to the center
+        private final BlockPos[] positions;
+        private final BlockState[] states;
+        private final List<Template.BlockInfo> tileEntities = new ArrayList<>();
+
+        private ChunkBatch(int chunkX, int chunkZ, List<Template.BlockInfo> infos) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+
+            List<Template.BlockInfo> blocks = new ArrayList<>(infos.size());
+            for (Template.BlockInfo info : infos) {
+                if (info.nbt != null) {
+                    this.tileEntities.add(info);
+                } else {
+                    blocks.add(info);
+                }
+            }
+
+            this.positions = new BlockPos[blocks.size()];
+            this.states = new BlockState[blocks.size()];
+            for (int i = 0; i < blocks.size(); i++) {
+                this.positions[i] = blocks.get(i).pos;
+                this.states[i] = blocks.get(i).state;
+            }
+        }
+
+        private void place(ServerWorld world, BlockPos center, Random random) {
+            world.getChunk((center.getX() >> 4) + this.chunkX, (center.getZ() >> 4) + this.chunkZ);
+            BlockPos.Mutable pos = new BlockPos.Mutable();
+            for (int i = 0; i < this.positions.length; i++) {
+                pos.setPos(center).move(this.positions[i].getX(), this.positions[i].getY(), this.positions[i].getZ());
+                clear(world, pos);
+                world.setBlockState(pos, this.states[i], Constants.BlockFlags.BLOCK_UPDATE);
+            }
+
+            for (Template.BlockInfo info : this.tileEntities) {
+                pos.setPos(center).move(info.pos.getX(), info.pos.getY(), info.pos.getZ());
+                clear(world, pos);
+                world.setBlockState(pos, info.state, Constants.BlockFlags.BLOCK_UPDATE);
+
+                TileEntity tile = world.getTileEntity(pos);
+                if (tile != null) {
+                    CompoundNBT nbt = info.nbt.copy();
+                    nbt.putInt("x", pos.getX());
+                    nbt.putInt("y", pos.getY());
+                    nbt.putInt("z", pos.getZ());
+                    if (tile instanceof LockableLootTileEntity) {
+                        nbt.putLong("LootTableSeed", random.nextLong());
+                    }
+                    tile.read(info.state, nbt);
+                }
+            }
+
+            // Same as vanilla, let blocks like fences connect to their neighbours
+            for (BlockPos offset : this.positions) {
+                updateShape(world, pos.setPos(center).move(offset.getX(), offset.getY(), offset.getZ()));
+            }
+            for (Template.BlockInfo info : this.tileEntities) {
+                updateShape(world, pos.setPos(center).move(info.pos.getX(), info.pos.getY(), info.pos.getZ()));
+            }
+        }
+
+        private static void updateShape(ServerWorld world, BlockPos pos) {
+            BlockState state = world.getBlockState(pos);
+            BlockState updated = Block.getValidBlockForPosition(state, world, pos);
+            if (state != updated) {
+                world.setBlockState(pos, updated, Constants.BlockFlags.BLOCK_UPDATE | Constants.BlockFlags.UPDATE_NEIGHBORS);
+            }
+        }
+
+        private static void clear(ServerWorld world, BlockPos pos) {
+            TileEntity tile = world.getTileEntity(pos);
+            if (tile != null) {
+                IClearable.clearObj(tile);
+                world.setBlockState(pos, Blocks.BARRIER.getDefaultState(), Constants.BlockFlags.NO_RERENDER | Constants.BlockFlags.UPDATE_NEIGHBORS);
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package de.melanx.skyblockbuilder.util;
+
+import de.melanx.skyblockbuilder.ConfigHandler;
+import de.melanx.skyblockbuilder.SkyblockBuilder;
+import net.minecraft.command.CommandSource;
+import net.minecraft.util.text.ITextComponent;
+import net.minecraft.util.text.TextFormatting;
+import net.minecraft.util.text.TranslationTextComponent;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+/*
+ * Runs bulk operations in slices on the server thread so that a single
+ * command on a world with thousands of teams doesn't stall the tick.
+ */
+public class BulkJobScheduler {
+
+    private static final long REPORT_INTERVAL = 2000;
+    private static final Deque<Job<?>> JOBS = new ArrayDeque<>();
+
+    public static <T> void schedule(@Nullable CommandSource source, ITextComponent name, Collection<T> elements, Predicate<T> action, IntConsumer onFinish) {
+        schedule(source, name, elements, action, onFinish, null);
+    }
+
+    public static <T> void schedule(@Nullable CommandSource source, ITextComponent name, Collection<T> elements, Predicate<T> action, IntConsumer onFinish, @Nullable Runnable onCancel) {
+        List<T> copy = new ArrayList<>(elements);
+        JOBS.add(new Job<>(source, name, copy.iterator(), copy.size(), action, onFinish, onCancel));
+    }
+
+    // For elements which are produced while the job runs, total is only used for progress reports
+    public static <T> void schedule(@Nullable CommandSource source, ITextComponent name, Iterator<T> elements, int total, Predicate<T> action, IntConsumer onFinish) {
+        schedule(source, name, elements, total, action, onFinish, null);
+    }
+
+    // onCancel runs instead of onFinish if the job is dropped because it failed or the server stopped
+    public static <T> void schedule(@Nullable CommandSource source, ITextComponent name, Iterator<T> elements, int total, Predicate<T> action, IntConsumer onFinish, @Nullable Runnable onCancel) {
+        JOBS.add(new Job<>(source, name, elements, total, action, onFinish, onCancel));
+    }
+
+    public static boolean isIdle() {
+        return JOBS.isEmpty();
+    }
+
+    // Called once at the end of each server tick
+    public static void tick() {
+        if (JOBS.isEmpty()) {
+            return;
+        }
+
+        long deadline = System.nanoTime() + ConfigHandler.bulkTickBudget.get() * 1000000L;
+        do {
+            Job<?> job = JOBS.peek();
+            boolean running;
+            try {
+                running = job.step();
+            } catch (RuntimeException e) {
+                // A broken job is dropped, so it doesn't fail again on every tick
+                JOBS.poll();
+                job.fail(e);
+                continue;
+            }
+
+            if (!running) {
+                JOBS.poll();
+                job.finish();
+            }
+        } while (!JOBS.isEmpty() && System.nanoTime() < deadline);
+    }
+
+    public static void clear() {
+        for (Job<?> job : JOBS) {
+            job.cancel();
+        }
+        JOBS.clear();
+    }
+
+    private static class Job<T> {
+
+        @Nullable
+        private final CommandSource source;
+        private final ITextComponent name;
+        private final Iterator<T> iterator;
+        private final int total;
+        private final Predicate<T> action;
+        private final IntConsumer onFinish;
+        @Nullable
+        private final Runnable onCancel;
+        private int processed;
+        private int affected;
+        private long lastReport;
+
+        private Job(@Nullable CommandSource source, ITextComponent name, Iterator<T> iterator, int total, Predicate<T> action, IntConsumer onFinish, @Nullable Runnable onCancel) {
+            this.source = source;
+            this.name = name;
+            this.iterator = iterator;
+            this.total = total;
+            this.action = action;
+            this.onFinish = onFinish;
+            this.onCancel = onCancel;
+            this.lastReport = System.currentTimeMillis();
+        }
+
+        // Returns false if there's nothing left to do
+        private boolean step() {
+            if (!this.iterator.hasNext()) {
+                return false;
+            }
+
+            if (this.action.test(this.iterator.next())) {
+                this.affected++;
+            }
+            this.processed++;
+
+            long now = System.currentTimeMillis();
+            if (this.source != null && now - this.lastReport >= REPORT_INTERVAL) {
+                this.lastReport = now;
+                this.source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.info.bulk_progress", this.name, this.processed, this.total).mergeStyle(TextFormatting.GRAY), false);
+            }
+
+            return this.iterator.hasNext();
+        }
+
+        private void finish() {
+            this.onFinish.accept(this.affected);
+        }
+
+        private void fail(RuntimeException e) {
+            SkyblockBuilder.LOGGER.error("Bulk job '" + this.name.getString() + "' failed after " + this.processed + " of " + this.total + " elements", e);
+            if (this.source != null) {
+                this.source.sendFeedback(new TranslationTextComponent("skyblockbuilder.command.error.bulk_job_failed", this.name, String.valueOf(e.getMessage())).mergeStyle(TextFormatting.RED), true);
+            }
+            this.cancel();
+        }
+
+        private void cancel() {
+            if (this.onCancel == null) {
+                return;
+            }
+
+            try {
+                this.onCancel.run();
+            } catch (RuntimeException e) {
+                SkyblockBuilder.LOGGER.error("Could not clean up bulk job '" + this.name.getString() + "'", e);
+            }
+        }
+    }
+}
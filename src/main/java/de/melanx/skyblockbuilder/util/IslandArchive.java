@@ -0,0 +1,311 @@
+package de.melanx.skyblockbuilder.util;
+
+import de.melanx.skyblockbuilder.ConfigHandler;
+import de.melanx.skyblockbuilder.SkyblockBuilder;
+import net.minecraft.block.Blocks;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.INBT;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.gen.feature.template.PlacementSettings;
+import net.minecraft.world.gen.feature.template.Template;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraftforge.common.util.Constants;
+import net.minecraftforge.fml.loading.FMLPaths;
+
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ * Islands saved to config/skyblockbuilder/islands/<name>.island, so they can be moved to another
+ * server or restored from a backup. The file is one gzip stream which is written and read one chunk
+ * at a time, so only a single chunk is held in memory at once:
+ *
+ * int magic, int version, int radius, team nbt,
+ * for each chunk with blocks: true, int chunk x, int chunk z (relative to the island center), int min y, template nbt
+ * false
+ *
+ * Blocks, tile entities and entities are stored relative to the chunk, so they can be placed at any other island.
+ */
+public class IslandArchive {
+
+    public static final Path ISLANDS_DIR = FMLPaths.CONFIGDIR.get().resolve(SkyblockBuilder.MODID).resolve("islands");
+    public static final String EXTENSION = ".island";
+    private static final int MAGIC = 0x53424941;
+    private static final int VERSION = 1;
+
+    public static List<String> getFiles() {
+        if (!Files.isDirectory(ISLANDS_DIR)) {
+            return new ArrayList<>();
+        }
+
+        try (Stream<Path> files = Files.list(ISLANDS_DIR)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(EXTENSION))
+                    .map(name -> name.substring(0, name.length() - EXTENSION.length()))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            return new ArrayList<>();
+        }
+    }
+
+    public static Path getFile(String name) throws IOException {
+        Path file = ISLANDS_DIR.resolve(name.endsWith(EXTENSION) ? name : name + EXTENSION);
+        if (!file.normalize().startsWith(ISLANDS_DIR)) {
+            throw new IOException("Invalid file name: " + name);
+        }
+
+        return file;
+    }
+
+    private static ChunkPos centerChunk(BlockPos center) {
+        return new ChunkPos(center.getX() >> 4, center.getZ() >> 4);
+    }
+
+    public static class Writer implements Closeable {
+
+        private final Path file;
+        private final Path tmp;
+        private final ChunkPos center;
+        private final DataOutputStream output;
+        private IOException error;
+        private int chunks;
+
+        public Writer(Path file, Team team) throws IOException {
+            this.file = file;
+            this.tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            this.center = centerChunk(team.getIsland().getCenter());
+            Files.createDirectories(ISLANDS_DIR);
+            FileChannel channel = FileChannel.open(this.tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.output = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Channels.newOutputStream(channel), 65536)));
+            try {
+                this.output.writeInt(MAGIC);
+                this.output.writeInt(VERSION);
+                this.output.writeInt(ConfigHandler.islandRadius.get());
+                CompressedStreamTools.write(team.serializeNBT(), this.output);
+            } catch (IOException e) {
+                this.close();
+                throw e;
+            }
+        }
+
+        // Returns true if the chunk contained anything. Errors are kept until finish, later chunks are skipped
+        public boolean writeChunk(ServerWorld world, ChunkPos pos) {
+            if (this.error != null) {
+                return false;
+            }
+
+            // Never generated chunks can't contain anything, and loading them would generate them
+            if (!WorldUtil.isGenerated(world, pos)) {
+                return false;
+            }
+
+            Chunk chunk = world.getChunk(pos.x, pos.z);
+            int minY = Integer.MAX_VALUE;
+            int maxY = Integer.MIN_VALUE;
+            for (ChunkSection section : chunk.getSections()) {
+                if (!ChunkSection.isEmpty(section)) {
+                    minY = Math.min(minY, section.getYLocation());
+                    maxY = Math.max(maxY, section.getYLocation() + 16);
+                }
+            }
+
+            if (minY > maxY) {
+                return false;
+            }
+
+            Template template = new Template();
+            template.takeBlocksFromWorld(world, new BlockPos(pos.getXStart(), minY, pos.getZStart()), new BlockPos(16, maxY - minY, 16), true, Blocks.AIR);
+            try {
+                this.output.writeBoolean(true);
+                this.output.writeInt(pos.x - this.center.x);
+                this.output.writeInt(pos.z - this.center.z);
+                this.output.writeInt(minY);
+                CompressedStreamTools.write(template.writeToNBT(new CompoundNBT()), this.output);
+            } catch (IOException e) {
+                this.error = e;
+                return false;
+            }
+
+            this.chunks++;
+            return true;
+        }
+
+        // Completes the file and moves it to its final name
+        public void finish() throws IOException {
+            if (this.error == null) {
+                try {
+                    this.output.writeBoolean(false);
+                } catch (IOException e) {
+                    this.error = e;
+                }
+            }
+
+            this.close();
+            if (this.error != null) {
+                Files.deleteIfExists(this.tmp);
+                throw this.error;
+            }
+
+            Files.move(this.tmp, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        // Closes the file without completing it and removes it, used if the export was stopped
+        public void abort() {
+            this.close();
+            try {
+                Files.deleteIfExists(this.tmp);
+            } catch (IOException e) {
+                SkyblockBuilder.LOGGER.warn("Could not delete " + this.tmp, e);
+            }
+        }
+
+        public int getChunks() {
+            return this.chunks;
+        }
+
+        @Override
+        public void close() {
+            try {
+                this.output.close();
+            } catch (IOException e) {
+                if (this.error == null) {
+                    this.error = e;
+                }
+            }
+        }
+    }
+
+    /*
+     * Reads the header on creation, the chunks are read one by one while iterating.
+     * Read errors end the iteration and are reported by getError.
+     */
+    public static class Reader implements Closeable, Iterator<Reader.Entry> {
+
+        private final DataInputStream input;
+        private final int radius;
+        private final CompoundNBT team;
+        private Entry next;
+        private boolean done;
+        private IOException error;
+
+        public Reader(Path file) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.input = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Channels.newInputStream(channel), 65536)));
+            try {
+                if (this.input.readInt() != MAGIC) {
+                    throw new IOException("Not an island file: " + file.getFileName());
+                }
+
+                int version = this.input.readInt();
+                if (version != VERSION) {
+                    throw new IOException("Unsupported island file version " + version);
+                }
+
+                this.radius = this.input.readInt();
+                this.team = CompressedStreamTools.read(this.input);
+            } catch (IOException e) {
+                this.input.close();
+                throw e;
+            }
+        }
+
+        public CompoundNBT getTeam() {
+            return this.team;
+        }
+
+        // Upper bound of chunks in this file
+        public int getMaxChunks() {
+            int size = (this.radius >> 4) * 2 + 2;
+            return size * size;
+        }
+
+        @Nullable
+        public IOException getError() {
+            return this.error;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (this.next == null && !this.done) {
+                try {
+                    if (this.input.readBoolean()) {
+                        this.next = new Entry(this.input.readInt(), this.input.readInt(), this.input.readInt(), CompressedStreamTools.read(this.input));
+                    } else {
+                        this.done = true;
+                    }
+                } catch (IOException e) {
+                    this.error = e;
+                    this.done = true;
+                }
+            }
+
+            return this.next != null;
+        }
+
+        @Override
+        public Entry next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            Entry entry = this.next;
+            this.next = null;
+            return entry;
+        }
+
+        @Override
+        public void close() {
+            try {
+                this.input.close();
+            } catch (IOException e) {
+                SkyblockBuilder.LOGGER.warn("Could not close island file", e);
+            }
+        }
+
+        public static class Entry {
+
+            private final int x;
+            private final int z;
+            private final int minY;
+            private final CompoundNBT template;
+
+            private Entry(int x, int z, int minY, CompoundNBT template) {
+                this.x = x;
+                this.z = z;
+                this.minY = minY;
+                this.template = template;
+            }
+
+            // Places this chunk relative to the given island center
+            public void place(ServerWorld world, BlockPos center, Random random) {
+                // Entities get new ids, so an island can be imported next to the one it was exported from
+                for (INBT entity : this.template.getList("entities", Constants.NBT.TAG_COMPOUND)) {
+                    ((CompoundNBT) entity).getCompound("nbt").remove("UUID");
+                }
+
+                Template template = new Template();
+                template.read(this.template);
+                ChunkPos centerChunk = centerChunk(center);
+                ChunkPos chunk = new ChunkPos(centerChunk.x + this.x, centerChunk.z + this.z);
+                world.getChunk(chunk.x, chunk.z);
+                template.func_237144_a_(world, new BlockPos(chunk.getXStart(), this.minY, chunk.getZStart()), new PlacementSettings(), random);
+            }
+        }
+    }
+}
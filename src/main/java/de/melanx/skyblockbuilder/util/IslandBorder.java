@@ -0,0 +1,88 @@
+package de.melanx.skyblockbuilder.util;
+
+import de.melanx.skyblockbuilder.ConfigHandler;
+import de.melanx.skyblockbuilder.world.IslandPos;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.network.play.server.SWorldBorderPacket;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.border.WorldBorder;
+import net.minecraft.world.server.ServerWorld;
+
+import java.util.UUID;
+
+/*
+ * Gives every island its own world border with the island radius. The border is only sent to the
+ * players on that island, the world border of the server stays as it is. Players who got outside
+ * anyway, e.g. with /tp, are moved back to the border.
+ */
+public class IslandBorder {
+
+    private static final int CHECK_INTERVAL = 20;
+    // The island cell each player got the border of
+    private static final Object2LongMap<UUID> SENT = new Object2LongOpenHashMap<>();
+    private static int ticks;
+
+    // Called once at the end of each server tick
+    public static void tick(ServerWorld world) {
+        if (!ConfigHandler.islandBorder.get() || ++ticks < CHECK_INTERVAL) {
+            return;
+        }
+        ticks = 0;
+
+        int radius = ConfigHandler.islandRadius.get();
+        for (ServerPlayerEntity player : world.getPlayers()) {
+            IslandPos island = IslandPos.fromBlockPos(player.getPosition());
+            UUID id = player.getGameProfile().getId();
+            if (!SENT.containsKey(id) || SENT.getLong(id) != island.toLong()) {
+                sendBorder(player, island, radius);
+            }
+
+            if (isRestricted(player) && !IslandPos.isWithinRadius(player.getPosX(), player.getPosZ(), radius)) {
+                BlockPos center = island.getCenter();
+                double x = MathHelper.clamp(player.getPosX(), center.getX() - radius + 0.5, center.getX() + radius + 0.5);
+                double z = MathHelper.clamp(player.getPosZ(), center.getZ() - radius + 0.5, center.getZ() + radius + 0.5);
+                player.stopRiding();
+                player.connection.setPlayerLocation(x, player.getPosY(), z, player.rotationYaw, player.rotationPitch);
+            }
+        }
+    }
+
+    // Sends the border of the island the player is on, does nothing outside of the skyblock overworld
+    public static void sendBorder(ServerPlayerEntity player) {
+        if (ConfigHandler.islandBorder.get() && WorldUtil.isSkyblock(player.getServerWorld())) {
+            sendBorder(player, IslandPos.fromBlockPos(player.getPosition()), ConfigHandler.islandRadius.get());
+        } else {
+            SENT.removeLong(player.getGameProfile().getId());
+        }
+    }
+
+    private static void sendBorder(ServerPlayerEntity player, IslandPos island, int radius) {
+        BlockPos center = island.getCenter();
+        WorldBorder worldBorder = player.getServerWorld().getWorldBorder();
+        WorldBorder border = new WorldBorder();
+        border.setCenter(center.getX() + 0.5, center.getZ() + 0.5);
+        border.setTransition(radius * 2 + 1);
+        border.setWarningDistance(worldBorder.getWarningDistance());
+        border.setWarningTime(worldBorder.getWarningTime());
+        player.connection.sendPacket(new SWorldBorderPacket(border, SWorldBorderPacket.Action.INITIALIZE));
+        SENT.put(player.getGameProfile().getId(), island.toLong());
+    }
+
+    // False if the player may leave the border
+    public static boolean isRestricted(PlayerEntity player) {
+        return ConfigHandler.islandBorder.get() && !player.isCreative() && !player.isSpectator();
+    }
+
+    public static void onLogout(PlayerEntity player) {
+        SENT.removeLong(player.getGameProfile().getId());
+    }
+
+    public static void clear() {
+        SENT.clear();
+        ticks = 0;
+    }
+}
@@ -0,0 +1,130 @@
+package de.melanx.skyblockbuilder.util;
+
+import de.melanx.skyblockbuilder.ConfigHandler;
+import de.melanx.skyblockbuilder.world.IslandPos;
+import net.minecraft.block.BlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.inventory.IClearable;
+import net.minecraft.network.play.server.SChunkDataPacket;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.SectionPos;
+import net.minecraft.village.PointOfInterestManager;
+import net.minecraft.village.PointOfInterestType;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.gen.Heightmap;
+import net.minecraft.world.lighting.WorldLightManager;
+import net.minecraft.world.server.ServerWorld;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Removes everything within the island radius, one chunk at a time. Chunks which were never generated
+ * are skipped, and only chunk sections which contain blocks are visited. These sections are dropped as
+ * a whole without block updates, only the light is checked again at removed light sources and at the
+ * highest removed block of each column, from where the sky light spreads down again.
+ */
+public class IslandCleaner {
+
+    private static final Set<Heightmap.Type> HEIGHTMAPS = EnumSet.of(Heightmap.Type.WORLD_SURFACE, Heightmap.Type.OCEAN_FLOOR, Heightmap.Type.MOTION_BLOCKING, Heightmap.Type.MOTION_BLOCKING_NO_LEAVES);
+
+    public static List<ChunkPos> getChunks(IslandPos island) {
+        BlockPos center = island.getCenter();
+        int radius = ConfigHandler.islandRadius.get();
+        List<ChunkPos> chunks = new ArrayList<>();
+        for (int x = (center.getX() - radius) >> 4; x <= (center.getX() + radius) >> 4; x++) {
+            for (int z = (center.getZ() - radius) >> 4; z <= (center.getZ() + radius) >> 4; z++) {
+                chunks.add(new ChunkPos(x, z));
+            }
+        }
+
+        return chunks;
+    }
+
+    // Returns true if anything was removed
+    public static boolean clearChunk(ServerWorld world, ChunkPos pos) {
+        boolean changed = WorldUtil.isGenerated(world, pos) && clearSections(world, world.getChunk(pos.x, pos.z));
+
+        AxisAlignedBB area = new AxisAlignedBB(pos.getXStart(), 0, pos.getZStart(), pos.getXEnd() + 1, world.getHeight(), pos.getZEnd() + 1);
+        for (Entity entity : world.getEntitiesWithinAABB(Entity.class, area, entity -> !(entity instanceof PlayerEntity))) {
+            entity.remove();
+            changed = true;
+        }
+
+        return changed;
+    }
+
+    private static boolean clearSections(ServerWorld world, Chunk chunk) {
+        ChunkPos pos = chunk.getPos();
+        PointOfInterestManager pointsOfInterest = world.getPointOfInterestManager();
+        WorldLightManager lightManager = world.getChunkProvider().getLightManager();
+        List<BlockPos> lightChecks = new ArrayList<>();
+        boolean[] columnChecked = new boolean[256];
+        BlockPos.Mutable mpos = new BlockPos.Mutable();
+        boolean changed = false;
+
+        ChunkSection[] sections = chunk.getSections();
+        for (int i = sections.length - 1; i >= 0; i--) {
+            ChunkSection section = sections[i];
+            if (ChunkSection.isEmpty(section)) {
+                continue;
+            }
+
+            // Top to bottom, so the first block of each column is the highest one
+            for (int y = 15; y >= 0; y--) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        BlockState state = section.getBlockState(x, y, z);
+                        if (state.isAir()) {
+                            continue;
+                        }
+
+                        mpos.setPos(pos.getXStart() + x, section.getYLocation() + y, pos.getZStart() + z);
+                        if (!columnChecked[z << 4 | x] || state.getLightValue(world, mpos) > 0) {
+                            columnChecked[z << 4 | x] = true;
+                            lightChecks.add(mpos.toImmutable());
+                        }
+
+                        if (state.hasTileEntity()) {
+                            TileEntity tile = world.getTileEntity(mpos);
+                            if (tile != null) {
+                                IClearable.clearObj(tile);
+                                world.removeTileEntity(mpos);
+                            }
+                        }
+
+                        if (PointOfInterestType.forState(state).isPresent()) {
+                            pointsOfInterest.remove(mpos);
+                        }
+                    }
+                }
+            }
+
+            sections[i] = Chunk.EMPTY_SECTION;
+            lightManager.updateSectionStatus(SectionPos.from(pos, section.getYLocation() >> 4), true);
+            changed = true;
+        }
+
+        if (!changed) {
+            return false;
+        }
+
+        Heightmap.updateChunkHeightmaps(chunk, HEIGHTMAPS);
+        for (BlockPos check : lightChecks) {
+            lightManager.checkBlock(check);
+        }
+        chunk.markDirty();
+
+        // Light changes are sent by the light manager, the blocks need to be sent again
+        SChunkDataPacket packet = new SChunkDataPacket(chunk, 65535);
+        world.getChunkProvider().chunkManager.getTrackingPlayers(pos, false).forEach(player -> player.connection.sendPacket(packet));
+        return true;
+    }
+}
@@ -0,0 +1,181 @@
+package de.melanx.skyblockbuilder.util;
+
+import de.melanx.skyblockbuilder.ConfigHandler;
+import de.melanx.skyblockbuilder.events.SkyblockHooks;
+import de.melanx.skyblockbuilder.world.data.SkyblockSavedData;
+import de.melanx.skyblockbuilder.world.data.SkyblockSnapshot;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.Reference2LongMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.server.ServerWorld;
+
+import java.util.Set;
+
+/*
+ * Islands whose members have all been offline for the configured time and which have no visitors
+ * release their forced chunks, so they stop ticking. The chunks are forced again as soon as a member
+ * logs in or someone is teleported to the island. Other chunk loaders are notified with SkyblockHibernateEvent.
+ */
+public class IslandHibernation {
+
+    private static final int CHECK_INTERVAL = 100;
+    // Awake islands and when they were last active. Not saved, after a restart every island gets the full delay again
+    private static final Reference2LongMap<Team> LAST_ACTIVE = new Reference2LongOpenHashMap<>();
+    private static int ticks;
+    private static boolean started;
+    private static boolean tracking;
+
+    /*
+     * Called once at the end of each server tick. Members are looked up in the snapshot of the last tick
+     * and only awake islands are checked, so a check costs O(online players + awake islands + forced chunks).
+     */
+    public static void tick(SkyblockSavedData data) {
+        if (++ticks < CHECK_INTERVAL) {
+            return;
+        }
+        ticks = 0;
+
+        ServerWorld world = data.getWorld();
+        Team spawn = data.getSpawn();
+        long now = System.currentTimeMillis();
+        long delay = ConfigHandler.hibernationDelay.get() * 60000L;
+
+        if (delay <= 0) {
+            // Hibernation is disabled, islands which still hibernate from before are woken up once
+            if (tracking || !started) {
+                for (Team team : data.getTeams()) {
+                    wakeUp(world, team);
+                }
+                LAST_ACTIVE.clear();
+                tracking = false;
+                started = true;
+            }
+            return;
+        }
+
+        if (!tracking) {
+            for (Team team : data.getTeams()) {
+                if (team != spawn && !team.isHibernating()) {
+                    LAST_ACTIVE.put(team, now);
+                }
+            }
+            tracking = true;
+            started = true;
+        }
+
+        SkyblockSnapshot snapshot = data.getSnapshot();
+        Set<Team> active = new ReferenceOpenHashSet<>();
+        for (ServerPlayerEntity player : world.getServer().getPlayerList().getPlayers()) {
+            SkyblockSnapshot.TeamSnapshot own = snapshot.getTeamFromPlayer(player.getGameProfile().getId());
+            if (own != null) {
+                Team team = data.getTeamFromIsland(own.getIsland());
+                if (team != null) {
+                    active.add(team);
+                }
+            }
+
+            if (player.getServerWorld() == world) {
+                Team visited = data.getTeamAt(player.getPosition());
+                if (visited != null && visited != spawn) {
+                    active.add(visited);
+                }
+            }
+        }
+
+        for (Team team : active) {
+            wakeUp(world, team);
+            LAST_ACTIVE.put(team, now);
+        }
+
+        // Forced chunks of all inactive islands, grouped once instead of searched per island
+        Reference2ObjectMap<Team, LongArrayList> forced = new Reference2ObjectOpenHashMap<>();
+        for (long chunk : world.getForcedChunks()) {
+            Team team = data.getTeamAt(new ChunkPos(chunk));
+            if (team != null && team != spawn && !active.contains(team)) {
+                forced.computeIfAbsent(team, key -> new LongArrayList()).add(chunk);
+            }
+        }
+
+        ObjectIterator<Reference2LongMap.Entry<Team>> iterator = LAST_ACTIVE.reference2LongEntrySet().iterator();
+        while (iterator.hasNext()) {
+            Reference2LongMap.Entry<Team> entry = iterator.next();
+            Team team = entry.getKey();
+            if (data.getTeam(team.getName()) != team) {
+                iterator.remove();
+            } else if (now - entry.getLongValue() >= delay) {
+                iterator.remove();
+                hibernate(world, team, forced.remove(team));
+            }
+        }
+
+        // Chunks forced while an island hibernates are released as well
+        for (Reference2ObjectMap.Entry<Team, LongArrayList> entry : forced.reference2ObjectEntrySet()) {
+            if (entry.getKey().isHibernating()) {
+                hibernate(world, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    // New islands get the full delay
+    public static void onTeamCreated(Team team) {
+        if (tracking) {
+            LAST_ACTIVE.put(team, System.currentTimeMillis());
+        }
+    }
+
+    private static void hibernate(ServerWorld world, Team team, LongArrayList chunks) {
+        if (team.isHibernating() && chunks == null) {
+            return;
+        }
+
+        LongArrayList released = new LongArrayList(team.getHibernatedChunks());
+        if (chunks != null) {
+            for (long chunk : chunks) {
+                world.forceChunk(ChunkPos.getX(chunk), ChunkPos.getZ(chunk), false);
+                released.add(chunk);
+            }
+        }
+
+        boolean wasHibernating = team.isHibernating();
+        team.setHibernatedChunks(released.toLongArray());
+        if (!wasHibernating) {
+            SkyblockHooks.onHibernate(team, true);
+        }
+    }
+
+    // Forces the released chunks again, does nothing if the island doesn't hibernate
+    public static void wakeUp(ServerWorld world, Team team) {
+        if (!team.isHibernating()) {
+            return;
+        }
+
+        for (long chunk : team.getHibernatedChunks()) {
+            world.forceChunk(ChunkPos.getX(chunk), ChunkPos.getZ(chunk), true);
+        }
+        team.wakeUp();
+        if (tracking) {
+            LAST_ACTIVE.put(team, System.currentTimeMillis());
+        }
+        SkyblockHooks.onHibernate(team, false);
+    }
+
+    public static void onLogin(SkyblockSavedData data, ServerPlayerEntity player) {
+        Team team = data.getTeamFromPlayer(player);
+        if (team != null) {
+            wakeUp(data.getWorld(), team);
+        }
+    }
+
+    public static void clear() {
+        LAST_ACTIVE.clear();
+        ticks = 0;
+        started = false;
+        tracking = false;
+    }
+}
@@ -0,0 +1,159 @@
+package de.melanx.skyblockbuilder.util;
+
+import de.melanx.skyblockbuilder.ConfigHandler;
+import de.melanx.skyblockbuilder.world.IslandPos;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityClassification;
+import net.minecraft.entity.MobEntity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.server.ServerWorld;
+
+/*
+ * Counts the loaded entities and tile entities per island cell of the skyblock world, so mob spawns
+ * and tile entity placements can be denied once an island reached its limit.
+ *
+ * Entities are counted when they join or leave the world. There are no such events for tile
+ * entities, so they are recounted every few seconds and placements are added in between.
+ *
+ * With island mob caps, each island gets the vanilla mob cap of a single player for itself, counted
+ * like vanilla does. These counts are redone every second, spawned mobs are added in between.
+ * This only adds a cap per island, the vanilla cap of the whole world is checked before and still applies.
+ * Only used on the server thread.
+ */
+public class IslandLimits {
+
+    private static final int RECOUNT_INTERVAL = 100;
+    private static final int MOB_RECOUNT_INTERVAL = 20;
+    private static final EntityClassification[] CLASSIFICATIONS = EntityClassification.values();
+    private static final Long2IntOpenHashMap ENTITIES = new Long2IntOpenHashMap();
+    private static final Long2IntOpenHashMap TILE_ENTITIES = new Long2IntOpenHashMap();
+    // The island each entity was counted for, entities may move to another island before they leave
+    private static final Reference2LongOpenHashMap<Entity> COUNTED = new Reference2LongOpenHashMap<>();
+    // Mobs per classification for the island mob caps
+    private static final Long2ObjectOpenHashMap<int[]> MOBS = new Long2ObjectOpenHashMap<>();
+    private static int ticks;
+
+    private static long island(double x, double z) {
+        return IslandPos.toLong(IslandPos.toIslandCoord(MathHelper.floor(x)), IslandPos.toIslandCoord(MathHelper.floor(z)));
+    }
+
+    public static void onEntityJoin(Entity entity) {
+        if (entity instanceof PlayerEntity || COUNTED.containsKey(entity)) {
+            return;
+        }
+
+        long island = island(entity.getPosX(), entity.getPosZ());
+        COUNTED.put(entity, island);
+        ENTITIES.addTo(island, 1);
+        if (ConfigHandler.islandMobCaps.get() && isCapped(entity)) {
+            countMob(island, entity);
+        }
+    }
+
+    public static void onEntityLeave(Entity entity) {
+        if (!COUNTED.containsKey(entity)) {
+            return;
+        }
+
+        long island = COUNTED.removeLong(entity);
+        if (ENTITIES.addTo(island, -1) <= 1) {
+            ENTITIES.remove(island);
+        }
+    }
+
+    // Called once at the end of each server tick
+    public static void tick(ServerWorld world) {
+        ticks++;
+        if (ticks % MOB_RECOUNT_INTERVAL == 0 && ConfigHandler.islandMobCaps.get()) {
+            MOBS.clear();
+            for (Entity entity : COUNTED.keySet()) {
+                if (isCapped(entity)) {
+                    countMob(island(entity.getPosX(), entity.getPosZ()), entity);
+                }
+            }
+        }
+
+        if (ticks < RECOUNT_INTERVAL) {
+            return;
+        }
+        ticks = 0;
+
+        TILE_ENTITIES.clear();
+        for (TileEntity tile : world.loadedTileEntityList) {
+            if (!tile.isRemoved()) {
+                TILE_ENTITIES.addTo(island(tile.getPos().getX(), tile.getPos().getZ()), 1);
+            }
+        }
+    }
+
+    public static boolean canSpawn(double x, double z) {
+        int limit = ConfigHandler.entityLimit.get();
+        return limit <= 0 || ENTITIES.get(island(x, z)) < limit;
+    }
+
+    // Always true without island mob caps
+    public static boolean canSpawnMob(EntityClassification classification, double x, double z) {
+        if (!ConfigHandler.islandMobCaps.get() || classification == EntityClassification.MISC) {
+            return true;
+        }
+
+        int[] mobs = MOBS.get(island(x, z));
+        return mobs == null || mobs[classification.ordinal()] < classification.getMaxNumberOfCreature();
+    }
+
+    // [VanillaCopy] WorldEntitySpawner, only mobs which can despawn count towards the cap
+    private static boolean isCapped(Entity entity) {
+        if (entity instanceof MobEntity) {
+            MobEntity mob = (MobEntity) entity;
+            if (mob.isNoDespawnRequired() || mob.preventDespawn()) {
+                return false;
+            }
+        }
+
+        return entity.getClassification(true) != EntityClassification.MISC;
+    }
+
+    private static void countMob(long island, Entity entity) {
+        MOBS.computeIfAbsent(island, key -> new int[CLASSIFICATIONS.length])[entity.getClassification(true).ordinal()]++;
+    }
+
+    public static boolean canPlaceTileEntity(double x, double z) {
+        int limit = ConfigHandler.tileEntityLimit.get();
+        return limit <= 0 || TILE_ENTITIES.get(island(x, z)) < limit;
+    }
+
+    // Counts a placed tile entity until the next recount
+    public static void onTileEntityPlaced(double x, double z) {
+        TILE_ENTITIES.addTo(island(x, z), 1);
+    }
+
+    public static int getEntities(IslandPos island) {
+        return ENTITIES.get(island.toLong());
+    }
+
+    public static int getTileEntities(IslandPos island) {
+        return TILE_ENTITIES.get(island.toLong());
+    }
+
+    // All islands with loaded entities or tile entities
+    public static LongSet getIslands() {
+        LongSet islands = new LongOpenHashSet(ENTITIES.keySet());
+        islands.addAll(TILE_ENTITIES.keySet());
+        return islands;
+    }
+
+    public static void clear() {
+        ENTITIES.clear();
+        TILE_ENTITIES.clear();
+        COUNTED.clear();
+        MOBS.clear();
+        ticks = 0;
+    }
+}
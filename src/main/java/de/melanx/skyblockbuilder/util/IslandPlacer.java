@@ -0,0 +1,217 @@
+package de.melanx.skyblockbuilder.util;
+
+import de.melanx.skyblockbuilder.ConfigHandler;
+import de.melanx.skyblockbuilder.SkyblockBuilder;
+import de.melanx.skyblockbuilder.events.SkyblockHooks;
+import de.melanx.skyblockbuilder.metrics.Metrics;
+import de.melanx.skyblockbuilder.profiling.FlightRecorder;
+import de.melanx.skyblockbuilder.template.PlacementPlan;
+import de.melanx.skyblockbuilder.world.data.SkyblockSavedData;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.server.ServerWorld;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/*
+ * Pastes islands chunk by chunk, spread over as many ticks as needed to stay within the
+ * configured time budget. A started chunk is always finished in the same tick, so its
+ * shape updates only run once all of its blocks are placed.
+ */
+public class IslandPlacer {
+
+    private static final Deque<Job> JOBS = new ArrayDeque<>();
+    // The same jobs by team, so pending islands are found without going through the queue. Also holds
+    // islands which are placed somewhere else, like imports
+    private static final Reference2ObjectMap<Team, Pending> BY_TEAM = new Reference2ObjectOpenHashMap<>();
+
+    // A held island is replaced by the template, its callbacks wait for the template instead
+    public static void schedule(SkyblockSavedData data, Team team, @Nullable Object event) {
+        Pending pending = BY_TEAM.get(team);
+        if (pending instanceof Job) {
+            return;
+        }
+
+        team.setPendingPlacement(true);
+        Job job = new Job(data, team, event);
+        if (pending != null) {
+            job.callbacks.addAll(pending.callbacks);
+        }
+        JOBS.add(job);
+        BY_TEAM.put(team, job);
+    }
+
+    // Marks an island which is placed somewhere else as pending, until it's released
+    public static void hold(Team team) {
+        if (BY_TEAM.containsKey(team)) {
+            return;
+        }
+
+        team.setPendingPlacement(true);
+        BY_TEAM.put(team, new Pending(team));
+    }
+
+    // Ends a hold and runs its callbacks, placed is false if the island won't be there
+    public static void release(Team team, boolean placed) {
+        Pending pending = BY_TEAM.get(team);
+        if (pending == null || pending instanceof Job) {
+            return;
+        }
+
+        BY_TEAM.remove(team);
+        if (placed) {
+            team.setPendingPlacement(false);
+        }
+        pending.runCallbacks(placed);
+    }
+
+    public static boolean isPending(Team team) {
+        return BY_TEAM.containsKey(team);
+    }
+
+    // The callback runs once the island is placed, or directly if it isn't waiting for placement
+    public static void whenReady(Team team, Consumer<Team> callback) {
+        whenDone(team, (t, placed) -> {
+            if (placed) {
+                callback.accept(t);
+            }
+        });
+    }
+
+    // Like whenReady, but also called with false if the team was deleted before its island was placed or placing it failed
+    public static void whenDone(Team team, BiConsumer<Team, Boolean> callback) {
+        Pending pending = BY_TEAM.get(team);
+        if (pending == null) {
+            callback.accept(team, true);
+        } else {
+            pending.callbacks.add(callback);
+        }
+    }
+
+    // Called once at the end of each server tick
+    public static void tick() {
+        if (JOBS.isEmpty()) {
+            return;
+        }
+
+        long deadline = System.nanoTime() + ConfigHandler.placementTickBudget.get() * 1000000L;
+        do {
+            Job job = JOBS.peek();
+            try {
+                if (!job.step()) {
+                    JOBS.poll();
+                    BY_TEAM.remove(job.team);
+                    job.finish();
+                }
+            } catch (RuntimeException e) {
+                // A broken island is dropped, so it doesn't fail again on every tick
+                if (JOBS.peek() == job) {
+                    JOBS.poll();
+                }
+                BY_TEAM.remove(job.team);
+                job.fail(e);
+            }
+        } while (!JOBS.isEmpty() && System.nanoTime() < deadline);
+    }
+
+    // Unfinished islands keep their pending flag and are scheduled again on the next server start
+    public static void clear() {
+        JOBS.clear();
+        BY_TEAM.clear();
+    }
+
+    private static class Pending {
+
+        protected final Team team;
+        protected final List<BiConsumer<Team, Boolean>> callbacks = new ArrayList<>();
+
+        private Pending(Team team) {
+            this.team = team;
+        }
+
+        // Each callback runs once, even if a callback before it fails
+        protected void runCallbacks(boolean placed) {
+            List<BiConsumer<Team, Boolean>> callbacks = new ArrayList<>(this.callbacks);
+            this.callbacks.clear();
+            for (BiConsumer<Team, Boolean> callback : callbacks) {
+                try {
+                    callback.accept(this.team, placed);
+                } catch (RuntimeException e) {
+                    SkyblockBuilder.LOGGER.error("Callback for the island of team " + this.team.getName() + " failed", e);
+                }
+            }
+        }
+    }
+
+    private static class Job extends Pending {
+
+        private final SkyblockSavedData data;
+        @Nullable
+        private final Object event;
+        private final BlockPos center;
+        private final PlacementPlan plan;
+        private final Random random = new Random();
+        private int nextChunk;
+        private long loadNanos;
+        private long pasteNanos;
+
+        private Job(SkyblockSavedData data, Team team, @Nullable Object event) {
+            super(team);
+            this.data = data;
+            this.event = event;
+            this.center = team.getIsland().getCenter();
+            this.plan = team.getTemplate().getPlan();
+        }
+
+        private boolean isValid() {
+            return this.data.getTeam(this.team.getName()) == this.team;
+        }
+
+        // Places one chunk, returns false if there's nothing left to do
+        private boolean step() {
+            if (!this.isValid() || this.nextChunk >= this.plan.getChunkCount()) {
+                return false;
+            }
+
+            ServerWorld world = this.data.getWorld();
+            long start = System.nanoTime();
+            ChunkPos chunk = this.plan.getChunk(this.center, this.nextChunk);
+            world.getChunk(chunk.x, chunk.z);
+            long loaded = System.nanoTime();
+            this.plan.placeChunk(world, this.center, this.nextChunk, this.random);
+            this.loadNanos += loaded - start;
+            this.pasteNanos += System.nanoTime() - loaded;
+            this.nextChunk++;
+
+            return this.nextChunk < this.plan.getChunkCount();
+        }
+
+        private void finish() {
+            boolean placed = this.isValid();
+            if (placed) {
+                long start = System.nanoTime();
+                this.plan.placeEntities(this.data.getWorld(), this.center);
+                this.pasteNanos += System.nanoTime() - start;
+                this.team.setPendingPlacement(false);
+
+                Metrics.ISLAND_CHUNK_LOAD.record(this.loadNanos);
+                Metrics.ISLAND_PASTE.record(this.pasteNanos);
+                FlightRecorder.finishCreateTeam(this.event, this.team.getName(), this.loadNanos + this.pasteNanos);
+                SkyblockHooks.onIslandReady(this.team);
+            }
+
+            this.runCallbacks(placed);
+        }
+
+        private void fail(RuntimeException e) {
+            SkyblockBuilder.LOGGER.error("Could not place the island of team " + this.team.getName() + " at chunk " + this.nextChunk + " of " + this.plan.getChunkCount(), e);
+            this.team.setPendingPlacement(false);
+            this.runCallbacks(false);
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package de.melanx.skyblockbuilder.util;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Random;
 
 public class NameGenerator {
@@ -19,7 +23,150 @@ public class NameGenerator {
             "grimm", "law", "worga", "ridan", "weeze", "bas", "rev", "kurt", "make", "poke", "rore", "stri"
     };
 
+    private static final int SIZE = random1.length * random2.length * random3.length;
+    private static final long[] NONE = new long[0];
+    // Lower case name to its indexes, built on first use
+    private static Map<String, int[]> indexes;
+
     public static String randomName(Random rand) {
         return random1[rand.nextInt(random1.length)] + random2[rand.nextInt(random2.length)] + random3[rand.nextInt(random3.length)];
     }
+
+    /*
+     * Returns the name at the given position of a seeded permutation of all names.
+     * Each cursor value maps to a different name until all combinations are used,
+     * after that the names repeat with a number appended (e.g. "Delrancod2").
+     */
+    public static String permutedName(long seed, long cursor) {
+        long round = cursor / SIZE;
+        int index = permute(seed, (int) (cursor % SIZE));
+
+        int i3 = index % random3.length;
+        index /= random3.length;
+        int i2 = index % random2.length;
+        int i1 = index / random2.length;
+
+        String name = random1[i1] + random2[i2] + random3[i3];
+        return round == 0 ? name : name + (round + 1);
+    }
+
+    /*
+     * Returns every cursor which permutedName maps to the given name, ignoring case.
+     * Empty if the name can't be generated. Usually there is only one, but different
+     * combinations of the parts may result in the same name.
+     */
+    public static long[] cursorsOf(long seed, String name) {
+        String base = name.toLowerCase(Locale.ROOT);
+        long round = 0;
+        int end = base.length();
+        while (end > 0 && Character.isDigit(base.charAt(end - 1))) {
+            end--;
+        }
+
+        if (end < base.length()) {
+            String suffix = base.substring(end);
+            if (suffix.charAt(0) == '0' || suffix.length() > 18) {
+                return NONE;
+            }
+
+            round = Long.parseLong(suffix) - 1;
+            if (round < 1) {
+                return NONE;
+            }
+            base = base.substring(0, end);
+        }
+
+        int[] found = getIndexes().get(base);
+        if (found == null) {
+            return NONE;
+        }
+
+        long[] cursors = new long[found.length];
+        for (int i = 0; i < found.length; i++) {
+            cursors[i] = round * SIZE + unpermute(seed, found[i]);
+        }
+
+        return cursors;
+    }
+
+    private static synchronized Map<String, int[]> getIndexes() {
+        if (indexes == null) {
+            Map<String, int[]> map = new HashMap<>(SIZE * 2);
+            for (int i1 = 0; i1 < random1.length; i1++) {
+                for (int i2 = 0; i2 < random2.length; i2++) {
+                    for (int i3 = 0; i3 < random3.length; i3++) {
+                        int index = (i1 * random2.length + i2) * random3.length + i3;
+                        String name = (random1[i1] + random2[i2] + random3[i3]).toLowerCase(Locale.ROOT);
+                        int[] old = map.get(name);
+                        if (old == null) {
+                            map.put(name, new int[]{index});
+                        } else {
+                            int[] both = Arrays.copyOf(old, old.length + 1);
+                            both[old.length] = index;
+                            map.put(name, both);
+                        }
+                    }
+                }
+            }
+            indexes = map;
+        }
+
+        return indexes;
+    }
+
+    // Affine permutation i -> (a * i + b) mod SIZE, a needs to be coprime with SIZE to be bijective
+    private static int permute(long seed, int index) {
+        long[] coefficients = coefficients(seed);
+        return (int) ((coefficients[0] * index + coefficients[1]) % SIZE);
+    }
+
+    // i = a^-1 * (value - b) mod SIZE
+    private static int unpermute(long seed, int value) {
+        long[] coefficients = coefficients(seed);
+        return (int) Math.floorMod(inverse(coefficients[0]) * (value - coefficients[1]), (long) SIZE);
+    }
+
+    private static long[] coefficients(long seed) {
+        long hash = mix(seed);
+        int a = (int) Math.floorMod(hash, (long) (SIZE - 1)) + 1;
+        while (gcd(a, SIZE) != 1) {
+            a = a % (SIZE - 1) + 1;
+        }
+        int b = (int) Math.floorMod(mix(hash), (long) SIZE);
+        return new long[]{a, b};
+    }
+
+    // Modular inverse of a, which is coprime with SIZE
+    private static long inverse(long a) {
+        long t = 0;
+        long newT = 1;
+        long r = SIZE;
+        long newR = a;
+        while (newR != 0) {
+            long q = r / newR;
+            long tmp = t - q * newT;
+            t = newT;
+            newT = tmp;
+            tmp = r - q * newR;
+            r = newR;
+            newR = tmp;
+        }
+
+        return Math.floorMod(t, (long) SIZE);
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
 }
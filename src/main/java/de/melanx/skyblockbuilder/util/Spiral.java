@@ -30,6 +30,34 @@ public class Spiral {
         return new int[]{this.x, this.y};
     }
 
+    // Same as calling next() index times on a new spiral, without walking all positions before
+    public static int[] positionAt(int index) {
+        if (index <= 0) {
+            return new int[]{0, 0};
+        }
+
+        // ring k contains the indices (2k - 1)^2 until (2k + 1)^2 - 1
+        int k = ((int) Math.sqrt(index) + 1) / 2;
+        while ((2L * k - 1) * (2L * k - 1) > index) {
+            k--;
+        }
+        while ((2L * k + 1) * (2L * k + 1) <= index) {
+            k++;
+        }
+
+        // distance from the last position of the ring, which is at (k, -k)
+        int d = (int) ((2L * k + 1) * (2L * k + 1) - 1 - index);
+        if (d < 2 * k) {
+            return new int[]{k - d, -k};
+        } else if (d < 4 * k) {
+            return new int[]{-k, -k + (d - 2 * k)};
+        } else if (d < 6 * k) {
+            return new int[]{-k + (d - 4 * k), k};
+        } else {
+            return new int[]{k, k - (d - 6 * k)};
+        }
+    }
+
     public int getX() {
         return this.x;
     }
@@ -1,12 +1,17 @@
 package de.melanx.skyblockbuilder.util;
 
+import de.melanx.skyblockbuilder.metrics.Metrics;
+import de.melanx.skyblockbuilder.template.IslandTemplate;
 import de.melanx.skyblockbuilder.world.IslandPos;
 import de.melanx.skyblockbuilder.world.data.SkyblockSavedData;
+import de.melanx.skyblockbuilder.world.data.SkyblockSnapshot;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.nbt.INBT;
 import net.minecraft.nbt.ListNBT;
+import net.minecraft.nbt.LongArrayNBT;
 import net.minecraft.server.management.PlayerList;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.text.IFormattableTextComponent;
@@ -19,21 +24,30 @@ import javax.annotation.Nonnull;
 import java.util.*;
 
 public class Team {
+
+    // 0: players and team chat as lists of compounds, 1: packed into long arrays
+    private static final int NBT_VERSION = 1;
     
     private final SkyblockSavedData data;
     private final Set<UUID> players;
-    private final Set<BlockPos> possibleSpawns;
+    // Packed with BlockPos#toLong, there are only a few spawns per team so a list is enough to keep them unique
+    private final LongArrayList possibleSpawns;
     private final Random random = new Random();
     private final Set<UUID> teamChatUsers = new HashSet<>();
     private IslandPos island;
     private String name;
     private boolean allowVisits;
+    private String template = TemplateLoader.DEFAULT;
+    private boolean pendingPlacement;
+    // Forced chunks released while the island hibernates, null if it doesn't
+    private LongArrayList hibernatedChunks;
+    private SkyblockSnapshot.TeamSnapshot snapshot;
 
     public Team(SkyblockSavedData data, IslandPos island) {
         this.data = data;
         this.island = island;
         this.players = new HashSet<>();
-        this.possibleSpawns = new HashSet<>();
+        this.possibleSpawns = new LongArrayList();
         this.allowVisits = false;
     }
 
@@ -43,7 +57,7 @@ public class Team {
 
     public void setName(String name) {
         this.name = name;
-        this.data.markDirty();
+        this.markDirty();
     }
 
     public IslandPos getIsland() {
@@ -52,7 +66,50 @@ public class Team {
 
     public void setIsland(IslandPos island) {
         this.island = island;
-        this.data.markDirty();
+        this.markDirty();
+    }
+
+    public String getTemplateName() {
+        return this.template;
+    }
+
+    public void setTemplateName(String template) {
+        this.template = template.toLowerCase();
+        this.markDirty();
+    }
+
+    // The template this island was created from, or the default one if it was removed
+    public IslandTemplate getTemplate() {
+        return TemplateLoader.getTemplate(this.template);
+    }
+
+    // True until the island is completely placed, saved so placement continues after a restart
+    public boolean isPendingPlacement() {
+        return this.pendingPlacement;
+    }
+
+    public void setPendingPlacement(boolean pendingPlacement) {
+        this.pendingPlacement = pendingPlacement;
+        this.markDirty();
+    }
+
+    public boolean isHibernating() {
+        return this.hibernatedChunks != null;
+    }
+
+    // Packed chunk positions which were forced before the island started hibernating
+    public long[] getHibernatedChunks() {
+        return this.hibernatedChunks == null ? new long[0] : this.hibernatedChunks.toLongArray();
+    }
+
+    public void setHibernatedChunks(long[] chunks) {
+        this.hibernatedChunks = new LongArrayList(chunks);
+        this.markDirty();
+    }
+
+    public void wakeUp() {
+        this.hibernatedChunks = null;
+        this.markDirty();
     }
 
     public Set<UUID> getPlayers() {
@@ -62,22 +119,49 @@ public class Team {
     public void setPlayers(Collection<UUID> players) {
         this.players.clear();
         this.players.addAll(players);
-        this.data.markDirty();
+        this.markDirty();
     }
 
+    // Creates a new set, use getSpawnCount and getSpawn where possible
     public Set<BlockPos> getPossibleSpawns() {
-        return this.possibleSpawns;
+        Set<BlockPos> spawns = new HashSet<>(this.possibleSpawns.size() * 2);
+        for (int i = 0; i < this.possibleSpawns.size(); i++) {
+            spawns.add(BlockPos.fromLong(this.possibleSpawns.getLong(i)));
+        }
+
+        return spawns;
+    }
+
+    public int getSpawnCount() {
+        return this.possibleSpawns.size();
+    }
+
+    // Packed position of the spawn at the given index
+    public long getSpawn(int index) {
+        return this.possibleSpawns.getLong(index);
+    }
+
+    public long[] getSpawnArray() {
+        return this.possibleSpawns.toLongArray();
     }
 
     public void setPossibleSpawns(Collection<BlockPos> spawns) {
         this.possibleSpawns.clear();
-        this.possibleSpawns.addAll(spawns);
-        this.data.markDirty();
+        for (BlockPos pos : spawns) {
+            this.addSpawn(pos.toLong());
+        }
+        this.markDirty();
     }
 
     public void addPossibleSpawn(BlockPos pos) {
-        this.possibleSpawns.add(pos);
-        this.data.markDirty();
+        this.addSpawn(pos.toLong());
+        this.markDirty();
+    }
+
+    private void addSpawn(long pos) {
+        if (!this.possibleSpawns.contains(pos)) {
+            this.possibleSpawns.add(pos);
+        }
     }
 
     public boolean removePossibleSpawn(BlockPos pos) {
@@ -85,8 +169,8 @@ public class Team {
             return false;
         }
 
-        boolean remove = this.possibleSpawns.remove(pos);
-        this.data.markDirty();
+        boolean remove = this.possibleSpawns.rem(pos.toLong());
+        this.markDirty();
         return remove;
     }
 
@@ -96,18 +180,20 @@ public class Team {
 
     public boolean toggleAllowVisits() {
         this.allowVisits = !this.allowVisits;
-        this.data.markDirty();
+        this.data.onVisitsChanged(this);
+        this.markDirty();
         return this.allowVisits;
     }
 
     public void setAllowVisit(boolean enabled) {
         this.allowVisits = enabled;
-        this.data.markDirty();
+        this.data.onVisitsChanged(this);
+        this.markDirty();
     }
 
     public boolean addPlayer(UUID player) {
         boolean added = this.players.add(player);
-        this.data.markDirty();
+        this.markDirty();
         return added;
     }
 
@@ -117,7 +203,7 @@ public class Team {
 
     public boolean addPlayers(Collection<UUID> players) {
         boolean added = this.players.addAll(players);
-        this.data.markDirty();
+        this.markDirty();
         return added;
     }
 
@@ -127,7 +213,7 @@ public class Team {
 
     public boolean removePlayer(UUID player) {
         boolean removed = this.players.remove(player);
-        this.data.markDirty();
+        this.markDirty();
         return removed;
     }
 
@@ -135,12 +221,12 @@ public class Team {
         for (UUID id : players) {
             this.players.remove(id);
         }
-        this.data.markDirty();
+        this.markDirty();
     }
 
     public void removeAllPlayers() {
         this.players.clear();
-        this.data.markDirty();
+        this.markDirty();
     }
 
     public boolean hasPlayer(UUID player) {
@@ -155,6 +241,20 @@ public class Team {
         return this.players.isEmpty();
     }
 
+    private void markDirty() {
+        this.snapshot = null;
+        this.data.markDirty();
+    }
+
+    // Immutable copy of this team, only recreated after the team changed
+    public SkyblockSnapshot.TeamSnapshot getSnapshot() {
+        if (this.snapshot == null) {
+            this.snapshot = new SkyblockSnapshot.TeamSnapshot(this.name, this.island, this.players, this.getPossibleSpawns(), this.allowVisits);
+        }
+
+        return this.snapshot;
+    }
+
     @Nonnull
     public ServerWorld getWorld() {
         return this.data.getWorld();
@@ -162,13 +262,16 @@ public class Team {
 
     public void broadcast(ITextComponent msg) {
         PlayerList playerList = this.getWorld().getServer().getPlayerList();
-        this.players.forEach(uuid -> {
+        int recipients = 0;
+        for (UUID uuid : this.players) {
             ServerPlayerEntity player = playerList.getPlayerByUUID(uuid);
             if (player != null) {
                 IFormattableTextComponent component = new StringTextComponent("[" + this.name + "] ");
                 player.sendMessage(component.append(msg), uuid);
+                recipients++;
             }
-        });
+        }
+        Metrics.TEAM_BROADCAST_RECIPIENTS.observe(recipients);
     }
 
     public void setTeamChat(PlayerEntity player, boolean teamChat) {
@@ -181,7 +284,7 @@ public class Team {
         } else {
             this.teamChatUsers.add(player);
         }
-        this.data.markDirty();
+        this.markDirty();
     }
 
     @SuppressWarnings("BooleanMethodIsAlwaysInverted")
@@ -197,67 +300,80 @@ public class Team {
     public CompoundNBT serializeNBT() {
         CompoundNBT nbt = new CompoundNBT();
 
+        nbt.putInt("Version", NBT_VERSION);
         nbt.put("Island", this.island.toTag());
         nbt.putString("Name", this.name != null ? this.name : "");
         nbt.putBoolean("Visits", this.allowVisits);
-
-        ListNBT players = new ListNBT();
-        for (UUID player : this.players) {
-            CompoundNBT playerTag = new CompoundNBT();
-            playerTag.putUniqueId("Player", player);
-
-            players.add(playerTag);
+        nbt.putString("Template", this.template);
+        nbt.putBoolean("PendingPlacement", this.pendingPlacement);
+        if (this.hibernatedChunks != null) {
+            nbt.put("HibernatedChunks", new LongArrayNBT(this.hibernatedChunks.toLongArray()));
         }
 
-        ListNBT spawns = new ListNBT();
-        for (BlockPos pos : this.possibleSpawns) {
-            CompoundNBT posTag = new CompoundNBT();
-            posTag.putDouble("posX", pos.getX() + 0.5);
-            posTag.putDouble("posY", pos.getY());
-            posTag.putDouble("posZ", pos.getZ() + 0.5);
-
-            spawns.add(posTag);
-        }
-
-        ListNBT teamChat = new ListNBT();
-        for (UUID id : this.teamChatUsers) {
-            CompoundNBT player = new CompoundNBT();
-            player.putUniqueId("Player", id);
-
-            teamChat.add(player);
+        // Two longs per member, team chat is a bit per member index
+        long[] players = new long[this.players.size() * 2];
+        BitSet teamChat = new BitSet(this.players.size());
+        int i = 0;
+        for (UUID player : this.players) {
+            players[i * 2] = player.getMostSignificantBits();
+            players[i * 2 + 1] = player.getLeastSignificantBits();
+            if (this.teamChatUsers.contains(player)) {
+                teamChat.set(i);
+            }
+            i++;
         }
 
-        nbt.put("Players", players);
-        nbt.put("Spawns", spawns);
-        nbt.put("TeamChat", teamChat);
+        nbt.put("Players", new LongArrayNBT(players));
+        nbt.put("Spawns", new LongArrayNBT(this.possibleSpawns.toLongArray()));
+        nbt.put("TeamChat", new LongArrayNBT(teamChat.toLongArray()));
         return nbt;
     }
 
     public void deserializeNBT(CompoundNBT nbt) {
+        this.snapshot = null;
         this.island = IslandPos.fromTag(nbt.getCompound("Island"));
         this.name = nbt.getString("Name");
         this.allowVisits = nbt.getBoolean("Visits");
+        this.template = nbt.contains("Template") ? nbt.getString("Template") : TemplateLoader.DEFAULT;
+        this.pendingPlacement = nbt.getBoolean("PendingPlacement");
+        this.hibernatedChunks = nbt.contains("HibernatedChunks", Constants.NBT.TAG_LONG_ARRAY) ? new LongArrayList(nbt.getLongArray("HibernatedChunks")) : null;
 
-        ListNBT players = nbt.getList("Players", Constants.NBT.TAG_COMPOUND);
         this.players.clear();
-        for (INBT player : players) {
-            this.players.add(((CompoundNBT) player).getUniqueId("Player"));
-        }
-
-        ListNBT spawns = nbt.getList("Spawns", Constants.NBT.TAG_COMPOUND);
-        this.possibleSpawns.clear();
-        for (INBT pos : spawns) {
-            CompoundNBT posTag = (CompoundNBT) pos;
-            this.possibleSpawns.add(new BlockPos(posTag.getDouble("posX"), posTag.getDouble("posY"), posTag.getDouble("posZ")));
-        }
-
         this.teamChatUsers.clear();
-        if (nbt.contains("TeamChat")) { // TODO 1.17 remove backwards compatibility
+        if (nbt.getInt("Version") >= 1) {
+            long[] players = nbt.getLongArray("Players");
+            BitSet teamChat = BitSet.valueOf(nbt.getLongArray("TeamChat"));
+            for (int i = 0; i + 1 < players.length; i += 2) {
+                UUID player = new UUID(players[i], players[i + 1]);
+                this.players.add(player);
+                if (teamChat.get(i / 2)) {
+                    this.teamChatUsers.add(player);
+                }
+            }
+        } else { // TODO 1.17 remove backwards compatibility
+            ListNBT players = nbt.getList("Players", Constants.NBT.TAG_COMPOUND);
+            for (INBT player : players) {
+                this.players.add(((CompoundNBT) player).getUniqueId("Player"));
+            }
+
             ListNBT teamChat = nbt.getList("TeamChat", Constants.NBT.TAG_COMPOUND);
             for (INBT player : teamChat) {
                 this.teamChatUsers.add(((CompoundNBT) player).getUniqueId("Player"));
             }
         }
+
+        this.possibleSpawns.clear();
+        if (nbt.contains("Spawns", Constants.NBT.TAG_LONG_ARRAY)) {
+            for (long pos : nbt.getLongArray("Spawns")) {
+                this.addSpawn(pos);
+            }
+        } else { // TODO 1.17 remove backwards compatibility
+            ListNBT spawns = nbt.getList("Spawns", Constants.NBT.TAG_COMPOUND);
+            for (INBT pos : spawns) {
+                CompoundNBT posTag = (CompoundNBT) pos;
+                this.addSpawn(new BlockPos(posTag.getDouble("posX"), posTag.getDouble("posY"), posTag.getDouble("posZ")).toLong());
+            }
+        }
     }
 
     @Override
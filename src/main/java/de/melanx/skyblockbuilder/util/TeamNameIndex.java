@@ -0,0 +1,56 @@
+package de.melanx.skyblockbuilder.util;
+
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+/*
+ * Case-insensitive sorted view of team names, used for command suggestions
+ * and listing without sorting all teams on every request.
+ */
+public class TeamNameIndex {
+
+    public static final int MAX_SUGGESTIONS = 100;
+
+    private final TreeMap<String, Team> teams = new TreeMap<>();
+
+    public void add(Team team) {
+        this.teams.put(team.getName().toLowerCase(), team);
+    }
+
+    public void remove(String name) {
+        this.teams.remove(name.toLowerCase());
+    }
+
+    public void clear() {
+        this.teams.clear();
+    }
+
+    public int size() {
+        return this.teams.size();
+    }
+
+    // Sorted by name
+    public Collection<Team> getTeams() {
+        return this.teams.values();
+    }
+
+    public CompletableFuture<Suggestions> suggest(SuggestionsBuilder builder) {
+        String prefix = builder.getRemaining().toLowerCase();
+        int i = 0;
+        for (Map.Entry<String, Team> entry : this.teams.tailMap(prefix, true).entrySet()) {
+            if (i >= MAX_SUGGESTIONS || !entry.getKey().startsWith(prefix)) {
+                break;
+            }
+
+            builder.suggest(entry.getValue().getName());
+            i++;
+        }
+
+        return builder.buildFuture();
+    }
+}
@@ -0,0 +1,114 @@
+package de.melanx.skyblockbuilder.util;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import de.melanx.skyblockbuilder.SkyblockBuilder;
+import net.minecraft.util.JSONUtils;
+import net.minecraftforge.fml.loading.FMLPaths;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/*
+ * Reads team lists for batch provisioning from config/skyblockbuilder/provisioning/<file>.json
+ *
+ * {
+ *   "teams": [
+ *     { "name": "Team1", "players": [ "<uuid>", "<uuid>" ], "template": "<template>" },
+ *     { "players": [ "<uuid>" ] }
+ *   ]
+ * }
+ */
+public class TeamProvisioner {
+
+    public static final Path PROVISIONING_DIR = FMLPaths.CONFIGDIR.get().resolve(SkyblockBuilder.MODID).resolve("provisioning");
+
+    public static List<String> getFiles() {
+        if (!Files.isDirectory(PROVISIONING_DIR)) {
+            return new ArrayList<>();
+        }
+
+        try (Stream<Path> files = Files.list(PROVISIONING_DIR)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(".json"))
+                    .map(name -> name.substring(0, name.length() - 5))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            return new ArrayList<>();
+        }
+    }
+
+    public static List<Entry> read(String fileName) throws IOException {
+        Path file = PROVISIONING_DIR.resolve(fileName.endsWith(".json") ? fileName : fileName + ".json");
+        if (!file.normalize().startsWith(PROVISIONING_DIR) || !Files.isRegularFile(file)) {
+            throw new IOException("File does not exist: " + file.getFileName());
+        }
+
+        JsonObject json;
+        try (Reader reader = Files.newBufferedReader(file)) {
+            json = JSONUtils.fromJson(reader);
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        for (JsonElement element : JSONUtils.getJsonArray(json, "teams")) {
+            JsonObject team = JSONUtils.getJsonObject(element, "team");
+            String name = team.has("name") ? JSONUtils.getString(team, "name") : null;
+
+            List<UUID> players = new ArrayList<>();
+            JsonArray array = JSONUtils.getJsonArray(team, "players", new JsonArray());
+            for (JsonElement player : array) {
+                try {
+                    players.add(UUID.fromString(JSONUtils.getString(player, "player")));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Invalid player UUID in team " + name + ": " + player);
+                }
+            }
+
+            String template = JSONUtils.getString(team, "template", TemplateLoader.DEFAULT);
+            if (!TemplateLoader.templateExists(template)) {
+                throw new IOException("Unknown template in team " + name + ": " + template);
+            }
+
+            entries.add(new Entry(name, players, template));
+        }
+
+        return entries;
+    }
+
+    public static class Entry {
+
+        @Nullable
+        private final String name;
+        private final List<UUID> players;
+        private final String template;
+
+        public Entry(@Nullable String name, List<UUID> players, String template) {
+            this.name = name;
+            this.players = players;
+            this.template = template;
+        }
+
+        @Nullable
+        public String getName() {
+            return this.name;
+        }
+
+        public List<UUID> getPlayers() {
+            return this.players;
+        }
+
+        public String getTemplate() {
+            return this.template;
+        }
+    }
+}
@@ -1,44 +1,113 @@
 package de.melanx.skyblockbuilder.util;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import de.melanx.skyblockbuilder.SkyblockBuilder;
+import de.melanx.skyblockbuilder.template.IslandTemplate;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.nbt.CompressedStreamTools;
-import net.minecraft.resources.IResourceManager;
 import net.minecraft.util.JSONUtils;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.gen.feature.template.Template;
 import net.minecraftforge.fml.loading.FMLPaths;
 import org.apache.commons.io.IOUtils;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public class TemplateLoader {
-    
+
+    public static final String DEFAULT = "default";
     private static final Path SCHEMATIC_FILE = FMLPaths.CONFIGDIR.get().resolve(SkyblockBuilder.MODID).resolve("template.nbt");
     private static final Path SPAWNS_FILE = FMLPaths.CONFIGDIR.get().resolve(SkyblockBuilder.MODID).resolve("spawns.json");
-    public static final Template TEMPLATE = new Template();
-    public static final List<BlockPos> SPAWNS = new ArrayList<>();
+    public static final Path TEMPLATES_DIR = FMLPaths.CONFIGDIR.get().resolve(SkyblockBuilder.MODID).resolve("templates");
+    private static volatile Map<String, IslandTemplate> templates = ImmutableMap.of();
+
+    /*
+     * Reads template.nbt with spawns.json as the default template and every templates/<name>.nbt
+     * with templates/<name>.json. Templates without own spawns use the spawns of the default template.
+     * Doesn't touch the loaded templates, so it can run off-thread. Apply the result with setTemplates.
+     */
+    public static Map<String, IslandTemplate> readTemplates() throws IOException {
+        List<BlockPos> defaultSpawns = readSpawns(SPAWNS_FILE);
+        ImmutableMap.Builder<String, IslandTemplate> builder = ImmutableMap.builder();
+        builder.put(DEFAULT, new IslandTemplate(DEFAULT, readTemplate(SCHEMATIC_FILE), defaultSpawns));
+
+        if (Files.isDirectory(TEMPLATES_DIR)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(TEMPLATES_DIR, "*.nbt")) {
+                for (Path file : files) {
+                    String fileName = file.getFileName().toString();
+                    String name = fileName.substring(0, fileName.length() - 4).toLowerCase();
+                    if (name.equals(DEFAULT)) {
+                        SkyblockBuilder.LOGGER.warn("Ignoring template {}, '{}' is reserved for template.nbt", file, DEFAULT);
+                        continue;
+                    }
+
+                    Path spawnsFile = TEMPLATES_DIR.resolve(fileName.substring(0, fileName.length() - 4) + ".json");
+                    List<BlockPos> spawns = Files.isRegularFile(spawnsFile) ? readSpawns(spawnsFile) : defaultSpawns;
+                    builder.put(name, new IslandTemplate(name, readTemplate(file), spawns));
+                }
+            }
+        }
+
+        return builder.build();
+    }
 
-    public static void loadSchematic(IResourceManager manager) throws IOException {
-        File schematic = new File(SCHEMATIC_FILE.toUri());
-        CompoundNBT nbt = CompressedStreamTools.readCompressed(new FileInputStream(schematic));
-        TEMPLATE.read(nbt);
+    public static void setTemplates(Map<String, IslandTemplate> templates) {
+        TemplateLoader.templates = ImmutableMap.copyOf(templates);
+    }
+
+    // Falls back to the default template if the given one doesn't exist (anymore)
+    public static IslandTemplate getTemplate(@Nullable String name) {
+        Map<String, IslandTemplate> templates = TemplateLoader.templates;
+        IslandTemplate template = name == null ? null : templates.get(name.toLowerCase());
+        if (template == null) {
+            template = templates.get(DEFAULT);
+        }
 
-        SPAWNS.clear();
-        File spawns = new File(SPAWNS_FILE.toUri());
+        return template == null ? IslandTemplate.EMPTY : template;
+    }
+
+    public static boolean templateExists(String name) {
+        return templates.containsKey(name.toLowerCase());
+    }
+
+    public static Collection<String> getTemplateNames() {
+        return templates.keySet();
+    }
+
+    private static Template readTemplate(Path file) throws IOException {
+        try (InputStream input = new FileInputStream(file.toFile())) {
+            CompoundNBT nbt = CompressedStreamTools.readCompressed(input);
+            Template template = new Template();
+            template.read(nbt);
+            return template;
+        }
+    }
+
+    private static List<BlockPos> readSpawns(Path file) throws IOException {
+        List<BlockPos> spawns = new ArrayList<>();
+        File spawnsFile = new File(file.toUri());
         JsonParser parser = new JsonParser();
 
-        String s = IOUtils.toString(new InputStreamReader(new FileInputStream(spawns)));
+        String s;
+        try (InputStreamReader reader = new InputStreamReader(new FileInputStream(spawnsFile))) {
+            s = IOUtils.toString(reader);
+        }
         JsonElement obj = parser.parse(s);
         if (!(obj instanceof JsonObject)) {
             throw new IllegalStateException("Spawns need to be in an json object.");
@@ -56,8 +125,10 @@ public class TemplateLoader {
                 int posY = JSONUtils.getInt(positions.get(1), "y");
                 int posZ = JSONUtils.getInt(positions.get(2), "z");
 
-                SPAWNS.add(new BlockPos(posX, posY, posZ));
+                spawns.add(new BlockPos(posX, posY, posZ));
             }
         }
+
+        return spawns;
     }
 }
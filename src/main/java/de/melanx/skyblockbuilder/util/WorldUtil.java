@@ -1,32 +1,56 @@
 package de.melanx.skyblockbuilder.util;
 
 import de.melanx.skyblockbuilder.ConfigHandler;
-import de.melanx.skyblockbuilder.world.IslandPos;
-import de.melanx.skyblockbuilder.world.data.SkyblockSavedData;
+import de.melanx.skyblockbuilder.SkyblockBuilder;
+import de.melanx.skyblockbuilder.metrics.Metrics;
+import de.melanx.skyblockbuilder.profiling.FlightRecorder;
+import de.melanx.skyblockbuilder.profiling.ProfilerSections;
 import de.melanx.skyblockbuilder.world.dimensions.overworld.SkyblockOverworldChunkGenerator;
 import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.util.Direction;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.IBlockReader;
 import net.minecraft.world.World;
+import net.minecraft.world.chunk.ChunkStatus;
+import net.minecraft.world.chunk.storage.ChunkSerializer;
 import net.minecraft.world.server.ServerChunkProvider;
 import net.minecraft.world.server.ServerWorld;
 
-import java.util.ArrayList;
-import java.util.List;
+import javax.annotation.Nullable;
+import java.io.IOException;
 import java.util.Random;
-import java.util.Set;
 
 public class WorldUtil {
     
     public static void teleportToIsland(ServerPlayerEntity player, Team team) {
+        long start = System.nanoTime();
+        Object event = FlightRecorder.startTeleport();
         //noinspection ConstantConditions
         ServerWorld world = player.getServer().func_241755_D_();
-        IslandPos island = team.getIsland();
+        SearchStats stats = event == null ? null : new SearchStats();
+        ProfilerSections.push(world.getProfiler(), "teleport");
+        try {
+            IslandHibernation.wakeUp(world, team);
 
-        Set<BlockPos> possibleSpawns = SkyblockSavedData.get(world).getPossibleSpawns(island);
-        BlockPos spawn = validPosition(world, team);
-        player.teleport(world, spawn.getX() + 0.5, spawn.getY(), spawn.getZ() + 0.5, ConfigHandler.direction.get().getYaw(), 0);
-        player.func_242111_a(world.getDimensionKey(), spawn, 0, true, false);
+            world.getProfiler().startSection("spawnSearch");
+            try {
+                BlockPos spawn = validPosition(world, team, stats);
+                world.getProfiler().endStartSection("move");
+                player.teleport(world, spawn.getX() + 0.5, spawn.getY(), spawn.getZ() + 0.5, ConfigHandler.direction.get().getYaw(), 0);
+                player.func_242111_a(world.getDimensionKey(), spawn, 0, true, false);
+                IslandBorder.sendBorder(player);
+            } finally {
+                world.getProfiler().endSection();
+            }
+        } finally {
+            ProfilerSections.pop(world.getProfiler());
+        }
+        Metrics.TELEPORT.observeSince(start);
+        if (stats != null) {
+            FlightRecorder.finishTeleport(event, player.getGameProfile().getName(), team.getName(), stats.getIterations(), stats.getChunkLoads());
+        }
     }
 
     public static boolean isSkyblock(World world) {
@@ -34,23 +58,52 @@ public class WorldUtil {
                 ((ServerChunkProvider) world.getChunkProvider()).getChunkGenerator() instanceof SkyblockOverworldChunkGenerator;
     }
 
-    private static BlockPos validPosition(ServerWorld world, Team team) {
-        
-        List<BlockPos> spawns = new ArrayList<>(team.getPossibleSpawns());
+    // True if the chunk is loaded or was fully generated before. Never loads or generates the chunk
+    public static boolean isGenerated(ServerWorld world, ChunkPos pos) {
+        if (world.getChunkProvider().chunkExists(pos.x, pos.z)) {
+            return true;
+        }
+
+        try {
+            CompoundNBT nbt = world.getChunkProvider().chunkManager.readChunk(pos);
+            return nbt != null && ChunkSerializer.getChunkStatus(nbt) == ChunkStatus.Type.LEVELCHUNK;
+        } catch (IOException e) {
+            SkyblockBuilder.LOGGER.warn("Could not read chunk {}", pos, e);
+            return false;
+        }
+    }
+
+    public static BlockPos validPosition(IBlockReader world, Team team) {
+        return validPosition(world, team, null);
+    }
+
+    public static BlockPos validPosition(IBlockReader world, Team team, @Nullable SearchStats stats) {
+        // Picks random spawns without repetition, checked ones are swapped behind the remaining ones
+        long[] spawns = team.getSpawnArray();
+        int remaining = spawns.length;
         Random random = new Random();
-        while (!spawns.isEmpty()) {
-            BlockPos pos = spawns.get(random.nextInt(spawns.size()));
+        BlockPos.Mutable candidate = new BlockPos.Mutable();
+        while (remaining > 0) {
+            int index = random.nextInt(remaining);
+            candidate.setPos(spawns[index]);
+            if (stats != null) {
+                stats.visit(world, candidate);
+            }
+            BlockPos down = candidate.down();
             //noinspection deprecation
-            if (!world.getBlockState(pos.down()).isAir(world, pos.down())) {
-                return pos;
+            if (!world.getBlockState(down).isAir(world, down)) {
+                return candidate.toImmutable();
             }
 
-            spawns.remove(pos);
+            spawns[index] = spawns[--remaining];
         }
 
-        BlockPos pos = team.getPossibleSpawns().stream().findAny().orElse(BlockPos.ZERO);
+        BlockPos pos = team.getSpawnCount() > 0 ? BlockPos.fromLong(team.getSpawn(0)) : BlockPos.ZERO;
         BlockPos.Mutable mpos = new BlockPos.Mutable(pos.getX(), world.getHeight(), pos.getZ());
         Spiral spiral = new Spiral();
+        if (stats != null) {
+            stats.visit(world, mpos);
+        }
         //noinspection deprecation
         while (world.getBlockState(mpos.down()).isAir(world, mpos.down())) {
             if (mpos.getY() <= 0) {
@@ -62,6 +115,9 @@ public class WorldUtil {
                 mpos.setX(pos.getX() + spiral.getX());
                 mpos.setY(world.getHeight());
                 mpos.setZ(pos.getZ() + spiral.getY());
+                if (stats != null) {
+                    stats.visit(world, mpos);
+                }
             }
 
             mpos.move(Direction.DOWN);
@@ -70,6 +126,35 @@ public class WorldUtil {
         return mpos;
     }
 
+    // Counts checked spawn candidates and columns, and how many of them needed a chunk to be loaded
+    public static class SearchStats {
+
+        private int iterations;
+        private int chunkLoads;
+        private long lastChunk = Long.MIN_VALUE;
+
+        private void visit(IBlockReader world, BlockPos pos) {
+            this.iterations++;
+            int x = pos.getX() >> 4;
+            int z = pos.getZ() >> 4;
+            long chunk = ChunkPos.asLong(x, z);
+            if (chunk != this.lastChunk) {
+                this.lastChunk = chunk;
+                if (world instanceof ServerWorld && !((ServerWorld) world).getChunkProvider().chunkExists(x, z)) {
+                    this.chunkLoads++;
+                }
+            }
+        }
+
+        public int getIterations() {
+            return this.iterations;
+        }
+
+        public int getChunkLoads() {
+            return this.chunkLoads;
+        }
+    }
+
     public enum Directions {
         NORTH(180),
         EAST(270),
@@ -3,22 +3,110 @@ package de.melanx.skyblockbuilder.world;
 import de.melanx.skyblockbuilder.ConfigHandler;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.vector.Vector3i;
 
 /*
  * Credits go to Botania authors
  */
 public final class IslandPos {
+
+    public static final int SPACING = 8192;
+
+    // Read from the config once and reset when the config changes
+    private static volatile int generationHeight = -1;
     
     private final int x;
     private final int z;
+    private BlockPos center;
 
     public IslandPos(int x, int z) {
         this.x = x;
         this.z = z;
     }
 
+    public static void onConfigChanged() {
+        generationHeight = -1;
+    }
+
+    private static int getGenerationHeight() {
+        int height = generationHeight;
+        if (height < 0) {
+            height = ConfigHandler.generationHeight.get();
+            generationHeight = height;
+        }
+
+        return height;
+    }
+
+    // Cached, as long as the generation height doesn't change the same instance is returned
     public BlockPos getCenter() {
-        return new BlockPos(this.x * 8192, ConfigHandler.generationHeight.get(), this.z * 8192);
+        BlockPos center = this.center;
+        int height = getGenerationHeight();
+        if (center == null || center.getY() != height) {
+            center = new BlockPos(this.x * SPACING, height, this.z * SPACING);
+            this.center = center;
+        }
+
+        return center;
+    }
+
+    // Sets the given position to the center of this island
+    public BlockPos.Mutable getCenter(BlockPos.Mutable pos) {
+        return pos.setPos(this.x * SPACING, getGenerationHeight(), this.z * SPACING);
+    }
+
+    // Sets the given position to the center of this island moved by the given offset, e.g. a template spawn
+    public BlockPos.Mutable offset(BlockPos.Mutable pos, Vector3i offset) {
+        return this.offset(pos, offset.getX(), offset.getY(), offset.getZ());
+    }
+
+    public BlockPos.Mutable offset(BlockPos.Mutable pos, int x, int y, int z) {
+        return pos.setPos(this.x * SPACING + x, getGenerationHeight() + y, this.z * SPACING + z);
+    }
+
+    public int getX() {
+        return this.x;
+    }
+
+    public int getZ() {
+        return this.z;
+    }
+
+    // Each island owns the cell of SPACING blocks around its center
+    public static int toIslandCoord(int blockCoord) {
+        return Math.floorDiv(blockCoord + SPACING / 2, SPACING);
+    }
+
+    // True if the position is within the given radius (a square) around the center block of its island cell
+    public static boolean isWithinRadius(double x, double z, int radius) {
+        return Math.abs(x - toIslandCoord(MathHelper.floor(x)) * SPACING - 0.5) <= radius + 0.5
+                && Math.abs(z - toIslandCoord(MathHelper.floor(z)) * SPACING - 0.5) <= radius + 0.5;
+    }
+
+    // True if any block of the chunk is within the given radius around the center of an island cell
+    public static boolean isWithinRadius(ChunkPos chunk, int radius) {
+        int centerX = toIslandCoord(chunk.getXStart() + 8) * SPACING;
+        int centerZ = toIslandCoord(chunk.getZStart() + 8) * SPACING;
+        return Math.max(Math.max(chunk.getXStart() - centerX, centerX - chunk.getXEnd()), 0) <= radius
+                && Math.max(Math.max(chunk.getZStart() - centerZ, centerZ - chunk.getZEnd()), 0) <= radius;
+    }
+
+    public static IslandPos fromBlockPos(BlockPos pos) {
+        return new IslandPos(toIslandCoord(pos.getX()), toIslandCoord(pos.getZ()));
+    }
+
+    public static long toLong(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    public long toLong() {
+        return toLong(this.x, this.z);
+    }
+
+    public static IslandPos fromLong(long packed) {
+        return new IslandPos((int) (packed >> 32), (int) packed);
     }
 
     public static IslandPos fromTag(CompoundNBT tag) {
@@ -2,18 +2,33 @@ package de.melanx.skyblockbuilder.world.data;
 
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
+import de.melanx.skyblockbuilder.metrics.Metrics;
+import de.melanx.skyblockbuilder.profiling.FlightRecorder;
+import de.melanx.skyblockbuilder.profiling.ProfilerSections;
+import de.melanx.skyblockbuilder.template.IslandTemplate;
+import de.melanx.skyblockbuilder.template.PlacementPlan;
+import de.melanx.skyblockbuilder.util.IslandHibernation;
+import de.melanx.skyblockbuilder.util.IslandPlacer;
+import de.melanx.skyblockbuilder.util.NameGenerator;
 import de.melanx.skyblockbuilder.util.Spiral;
 import de.melanx.skyblockbuilder.util.Team;
+import de.melanx.skyblockbuilder.util.TeamNameIndex;
 import de.melanx.skyblockbuilder.util.TemplateLoader;
 import de.melanx.skyblockbuilder.util.WorldUtil;
 import de.melanx.skyblockbuilder.world.IslandPos;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.nbt.INBT;
 import net.minecraft.nbt.ListNBT;
 import net.minecraft.util.Util;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.world.gen.feature.template.PlacementSettings;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.server.ServerWorld;
 import net.minecraft.world.storage.DimensionSavedDataManager;
 import net.minecraft.world.storage.WorldSavedData;
@@ -22,7 +37,9 @@ import org.apache.commons.lang3.tuple.Pair;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.File;
 import java.util.*;
+import java.util.function.Consumer;
 
 /*
  * Credits go to Botania authors
@@ -39,6 +56,20 @@ public class SkyblockSavedData extends WorldSavedData {
     private Map<String, Team> skyblocks = new HashMap<>();
     private BiMap<String, IslandPos> skyblockPositions = HashBiMap.create();
     private Spiral spiral = new Spiral();
+    private long nameCursor = 0;
+    // Cursors which were moved to another slot when a name was reserved, see reserveName
+    private final Long2LongOpenHashMap nameSlotOf = new Long2LongOpenHashMap();
+    // The same for the slots which weren't taken yet, slot -> cursor
+    private final Long2LongOpenHashMap nameSlots = new Long2LongOpenHashMap();
+    private final TeamNameIndex teamIndex = new TeamNameIndex();
+    private final TeamNameIndex visitableTeamIndex = new TeamNameIndex();
+    // Packed island position to team, only used on the server thread
+    private final Long2ObjectOpenHashMap<Team> islands = new Long2ObjectOpenHashMap<>();
+    // Copy of islands for other threads. Never modified, replaced as a whole at the end of a tick
+    private volatile Long2ObjectMap<Team> islandIndex = Long2ObjectMaps.emptyMap();
+    private boolean islandIndexStale = false;
+    private volatile SkyblockSnapshot snapshot = SkyblockSnapshot.EMPTY;
+    private boolean snapshotStale = true;
 
     public SkyblockSavedData(ServerWorld world) {
         super(NAME);
@@ -55,8 +86,10 @@ public class SkyblockSavedData extends WorldSavedData {
             return this.skyblocks.get("spawn");
         }
 
-        Team team = this.createTeam("Spawn");
+        // Placed right away, players are sent to spawn as soon as they join
+        Team team = this.allocateTeam("Spawn");
         assert team != null;
+        this.placeIsland(team);
         team.addPlayer(Util.DUMMY_UUID);
 
         this.markDirty();
@@ -64,6 +97,10 @@ public class SkyblockSavedData extends WorldSavedData {
     }
 
     public Pair<IslandPos, Team> create(String teamName) {
+        return this.create(teamName, TemplateLoader.DEFAULT);
+    }
+
+    public Pair<IslandPos, Team> create(String teamName, String template) {
         IslandPos islandPos;
         if (teamName.equalsIgnoreCase("spawn")) {
             islandPos = SPAWN_ISLAND;
@@ -74,14 +111,18 @@ public class SkyblockSavedData extends WorldSavedData {
             } while (this.skyblockPositions.containsValue(islandPos));
         }
 
-        Set<BlockPos> positions = initialPossibleSpawns(islandPos.getCenter());
-
         Team team = new Team(this, islandPos);
-        team.setPossibleSpawns(positions);
+        team.setTemplateName(template);
+        team.setPossibleSpawns(initialPossibleSpawns(islandPos.getCenter(), team.getTemplate()));
         team.setName(teamName);
 
         this.skyblocks.put(team.getName().toLowerCase(), team);
         this.skyblockPositions.put(team.getName().toLowerCase(), islandPos);
+        this.indexTeam(team);
+        this.reserveName(teamName);
+        this.islands.put(islandPos.toLong(), team);
+        this.islandIndexStale = true;
+        IslandHibernation.onTeamCreated(team);
 
         this.markDirty();
         return Pair.of(islandPos, team);
@@ -123,13 +164,31 @@ public class SkyblockSavedData extends WorldSavedData {
         }
         this.invites = invites;
         this.skyblocks = skyblocks;
+        this.teamIndex.clear();
+        this.visitableTeamIndex.clear();
+        skyblocks.values().forEach(this::indexTeam);
         this.skyblockPositions = skyblockPositions;
+        this.islands.clear();
+        skyblocks.values().forEach(team -> this.islands.put(team.getIsland().toLong(), team));
+        this.islandIndexStale = true;
         this.spiral = Spiral.fromArray(nbt.getIntArray("SpiralState"));
+        this.nameCursor = nbt.getLong("NameCursor");
+        this.nameSlots.clear();
+        this.nameSlotOf.clear();
+        long[] nameSlots = nbt.getLongArray("NameSlots");
+        for (int i = 0; i + 1 < nameSlots.length; i += 2) {
+            this.setNameSlot(nameSlots[i], nameSlots[i + 1]);
+        }
+        // Teams from before names were reserved
+        skyblocks.values().forEach(team -> this.reserveName(team.getName()));
+        this.snapshotStale = true;
+        this.publishSnapshot();
     }
 
     @Nonnull
     @Override
     public CompoundNBT write(@Nonnull CompoundNBT nbt) {
+        Object event = FlightRecorder.startSave();
         ListNBT islands = new ListNBT();
         for (Team team : this.skyblocks.values()) {
             islands.add(team.serializeNBT());
@@ -154,11 +213,55 @@ public class SkyblockSavedData extends WorldSavedData {
         }
 
         nbt.putIntArray("SpiralState", this.spiral.toIntArray());
+        nbt.putLong("NameCursor", this.nameCursor);
+        long[] nameSlots = new long[this.nameSlotOf.size() * 2];
+        int i = 0;
+        for (Long2LongMap.Entry entry : this.nameSlotOf.long2LongEntrySet()) {
+            nameSlots[i++] = entry.getLongKey();
+            nameSlots[i++] = entry.getLongValue();
+        }
+        nbt.putLongArray("NameSlots", nameSlots);
         nbt.put("Islands", islands);
         nbt.put("Invitations", invitations);
+        FlightRecorder.finishSave(event, this.skyblocks.size());
         return nbt;
     }
 
+    @Override
+    public void markDirty() {
+        super.markDirty();
+        this.snapshotStale = true;
+    }
+
+    // Called on the server thread at the end of each tick, so all changes of one tick are published together
+    public void publishSnapshot() {
+        this.publishIslandIndex();
+        if (!this.snapshotStale) {
+            return;
+        }
+
+        List<SkyblockSnapshot.TeamSnapshot> teams = new ArrayList<>(this.skyblocks.size());
+        for (Team team : this.skyblocks.values()) {
+            teams.add(team.getSnapshot());
+        }
+
+        this.snapshot = SkyblockSnapshot.of(this.snapshot.getVersion() + 1, teams, this.getInviteCount());
+        this.snapshotStale = false;
+    }
+
+    // Consistent view of all teams as of the end of the last tick, safe to use from any thread
+    public SkyblockSnapshot getSnapshot() {
+        return this.snapshot;
+    }
+
+    @Override
+    public void save(@Nonnull File file) {
+        long start = System.nanoTime();
+        super.save(file);
+        Metrics.SAVE.observeSince(start);
+        Metrics.SAVE_BYTES.observe(file.length());
+    }
+
     @Nullable
     public IslandPos getTeamIsland(String team) {
         return this.skyblockPositions.get(team.toLowerCase());
@@ -201,25 +304,79 @@ public class SkyblockSavedData extends WorldSavedData {
 
     @Nullable
     public Team createTeam(String teamName) {
-        if (this.teamExists(teamName)) {
-            return null;
+        return this.createTeam(teamName, TemplateLoader.DEFAULT);
+    }
+
+    // The island is placed over the next ticks, use whenReady to wait for it
+    @Nullable
+    public Team createTeam(String teamName, String template) {
+        Object event = FlightRecorder.startCreateTeam();
+        ProfilerSections.push(this.world.getProfiler(), "createIsland");
+        try {
+            Team team = this.allocateTeam(teamName, template);
+            if (team == null) {
+                return null;
+            }
+
+            IslandPlacer.schedule(this, team, event);
+            return team;
+        } finally {
+            ProfilerSections.pop(this.world.getProfiler());
         }
+    }
 
-        Pair<IslandPos, Team> pair = this.create(teamName);
-        Team team = pair.getRight();
-        List<BlockPos> possibleSpawns = new ArrayList<>(this.getPossibleSpawns(team.getIsland()));
-        team.setPossibleSpawns(possibleSpawns);
+    public void whenReady(Team team, Consumer<Team> callback) {
+        IslandPlacer.whenReady(team, callback);
+    }
+
+    // Continues placing islands which weren't finished before the server stopped
+    public void resumePlacements() {
+        for (Team team : this.skyblocks.values()) {
+            if (team.isPendingPlacement()) {
+                IslandPlacer.schedule(this, team, null);
+            }
+        }
+    }
 
-        PlacementSettings settings = new PlacementSettings();
-        TemplateLoader.TEMPLATE.func_237152_b_(this.world, team.getIsland().getCenter(), settings, new Random());
+    // Registers the team and its island position without pasting the template
+    @Nullable
+    public Team allocateTeam(String teamName) {
+        return this.allocateTeam(teamName, TemplateLoader.DEFAULT);
+    }
 
-        this.skyblocks.put(team.getName().toLowerCase(), team);
-        this.skyblockPositions.put(team.getName().toLowerCase(), team.getIsland());
+    @Nullable
+    public Team allocateTeam(String teamName, String template) {
+        if (this.teamExists(teamName)) {
+            return null;
+        }
 
+        long start = System.nanoTime();
+        Team team = this.create(teamName, template).getRight();
         this.markDirty();
+        Metrics.ISLAND_ALLOCATION.observeSince(start);
         return team;
     }
 
+    // Places the whole island at once
+    public void placeIsland(Team team) {
+        BlockPos center = team.getIsland().getCenter();
+        PlacementPlan plan = team.getTemplate().getPlan();
+        long start = System.nanoTime();
+        this.world.getProfiler().startSection("loadChunks");
+        for (int i = 0; i < plan.getChunkCount(); i++) {
+            ChunkPos chunk = plan.getChunk(center, i);
+            this.world.getChunk(chunk.x, chunk.z);
+        }
+        Metrics.ISLAND_CHUNK_LOAD.observeSince(start);
+
+        start = System.nanoTime();
+        this.world.getProfiler().endStartSection("paste");
+        plan.place(this.world, center, new Random());
+        this.world.getProfiler().endSection();
+        Metrics.ISLAND_PASTE.observeSince(start);
+        team.setPendingPlacement(false);
+    }
+
     @Nullable
     public Team createTeamAndJoin(String teamName, PlayerEntity player) {
         return this.createTeamAndJoin(teamName, player.getGameProfile().getId());
@@ -261,24 +418,38 @@ public class SkyblockSavedData extends WorldSavedData {
     }
 
     public boolean deleteTeam(String name) {
-        Iterator<Map.Entry<String, Team>> itr = this.skyblocks.entrySet().iterator();
+        Team team = this.getTeam(name);
+        return team != null && this.deleteTeam(team);
+    }
+
+    public boolean deleteTeam(Team team) {
+        String name = team.getName().toLowerCase();
+        if (name.equals("spawn")) {
+            return false;
+        }
+
+        Team removedTeam = this.skyblocks.remove(name);
+        if (removedTeam == null) {
+            return false;
+        }
+
+        this.skyblockPositions.remove(name);
+        this.unindexTeam(name);
+        this.islands.remove(removedTeam.getIsland().toLong());
+        this.islandIndexStale = true;
+        Iterator<List<Team>> itr = this.invites.values().iterator();
         while (itr.hasNext()) {
-            Map.Entry<String, Team> entry = itr.next();
-            Team team = entry.getValue();
-            if (team.getName().equalsIgnoreCase(name)) {
-                this.skyblockPositions.inverse().remove(team.getIsland());
+            List<Team> teams = itr.next();
+            teams.remove(removedTeam);
+            if (teams.isEmpty()) {
                 itr.remove();
-                return true;
             }
         }
-        return false;
-    }
-
-    public boolean deleteTeam(Team team) {
-        Team removedTeam = this.skyblocks.remove(team.getName());
 
         //noinspection ConstantConditions
-        return removedTeam != null && this.getTeam("spawn").addPlayers(removedTeam.getPlayers());
+        this.getTeam("spawn").addPlayers(removedTeam.getPlayers());
+        this.markDirty();
+        return true;
     }
 
     @Nullable
@@ -298,6 +469,79 @@ public class SkyblockSavedData extends WorldSavedData {
         return null;
     }
 
+    @Nullable
+    public Team getTeamFromIsland(IslandPos island) {
+        return this.getIslands().get(island.toLong());
+    }
+
+    // The team owning the island cell at the given block coordinates, safe to call from any thread
+    @Nullable
+    public Team getTeamAt(int x, int z) {
+        return this.getIslands().get(IslandPos.toLong(IslandPos.toIslandCoord(x), IslandPos.toIslandCoord(z)));
+    }
+
+    @Nullable
+    public Team getTeamAt(BlockPos pos) {
+        return this.getTeamAt(pos.getX(), pos.getZ());
+    }
+
+    // Island cells are aligned to chunks, so any block of the chunk works
+    @Nullable
+    public Team getTeamAt(ChunkPos pos) {
+        return this.getTeamAt(pos.getXStart(), pos.getZStart());
+    }
+
+    // Names chosen manually were already moved behind the cursor by reserveName, so the next slot is always free
+    public String nextTeamName() {
+        long cursor = this.takeNameSlot();
+        this.markDirty();
+        return NameGenerator.permutedName(this.getNameSeed(), cursor);
+    }
+
+    /*
+     * Moves every cursor which generates the given name behind the name cursor, so it's never handed out.
+     * It swaps slots with the cursor of the next slot, like one step of a Fisher-Yates shuffle.
+     * Only the cursors which aren't in their own slot are stored.
+     */
+    private void reserveName(String name) {
+        for (long cursor : NameGenerator.cursorsOf(this.getNameSeed(), name)) {
+            long slot = this.nameSlotOf.containsKey(cursor) ? this.nameSlotOf.get(cursor) : cursor;
+            if (slot < this.nameCursor) {
+                // Handed out or reserved before
+                continue;
+            }
+
+            long head = this.nameCursor;
+            long headCursor = this.takeNameSlot();
+            if (headCursor != cursor) {
+                this.setNameSlot(headCursor, slot);
+                this.setNameSlot(cursor, head);
+            }
+        }
+    }
+
+    // Returns the cursor of the next slot and moves the name cursor on
+    private long takeNameSlot() {
+        long slot = this.nameCursor++;
+        return this.nameSlots.containsKey(slot) ? this.nameSlots.remove(slot) : slot;
+    }
+
+    private void setNameSlot(long cursor, long slot) {
+        if (cursor == slot) {
+            this.nameSlotOf.remove(cursor);
+            this.nameSlots.remove(slot);
+        } else {
+            this.nameSlotOf.put(cursor, slot);
+            if (slot >= this.nameCursor) {
+                this.nameSlots.put(slot, cursor);
+            }
+        }
+    }
+
+    private long getNameSeed() {
+        return this.world == null ? 0 : this.world.getSeed();
+    }
+
     public boolean teamExists(String name) {
         return this.skyblocks.containsKey(name.toLowerCase());
     }
@@ -315,11 +559,20 @@ public class SkyblockSavedData extends WorldSavedData {
 
         if (!teams.contains(team)) {
             teams.add(team);
+            Metrics.INVITES_SENT.inc();
         }
 
         this.markDirty();
     }
 
+    public int getInviteCount() {
+        int count = 0;
+        for (List<Team> teams : this.invites.values()) {
+            count += teams.size();
+        }
+        return count;
+    }
+
     public boolean hasInvites(PlayerEntity player) {
         return this.hasInvites(player.getGameProfile().getId());
     }
@@ -349,19 +602,51 @@ public class SkyblockSavedData extends WorldSavedData {
     }
 
     public boolean acceptInvite(Team team, UUID player) {
-        List<Team> teams = this.invites.get(player);
+        if (!this.joinInvitedTeam(team, player)) {
+            return false;
+        }
+
+        this.whenReady(team, ready -> {
+            ServerPlayerEntity entity = this.world.getServer().getPlayerList().getPlayerByUUID(player);
+            if (entity != null && ready.hasPlayer(player)) {
+                WorldUtil.teleportToIsland(entity, ready);
+            }
+        });
+        return true;
+    }
 
-        if (teams == null) {
+    // Joins the team if the player was invited, without teleporting the player
+    public boolean joinInvitedTeam(Team team, UUID player) {
+        List<Team> teams = this.invites.get(player);
+        if (teams == null || !teams.contains(team)) {
             return false;
         }
 
-        if (teams.contains(team)) {
-            this.addPlayerToTeam(team.getName(), player);
-            this.invites.remove(player);
-            //noinspection ConstantConditions
-            WorldUtil.teleportToIsland(this.world.getServer().getPlayerList().getPlayerByUUID(player), team);
+        this.addPlayerToTeam(team, player);
+        this.removeInvites(player);
+        Metrics.INVITES_ACCEPTED.inc();
+        return true;
+    }
+
+    public void removeInvites(UUID player) {
+        if (this.invites.remove(player) != null) {
             this.markDirty();
+        }
+    }
+
+    /*
+     * Team bookkeeping when a player logs in. Returns true if the player was added to the
+     * spawn team, either because it's the first join or because the players team doesn't exist anymore.
+     */
+    public boolean trackLogin(UUID player, boolean firstJoin) {
+        Team spawn = this.getSpawn();
+        if (firstJoin) {
+            spawn.addPlayer(player);
+            return true;
+        }
 
+        if (!this.hasPlayerTeam(player) && !spawn.hasPlayer(player)) {
+            this.addPlayerToTeam(spawn, player);
             return true;
         }
 
@@ -372,26 +657,76 @@ public class SkyblockSavedData extends WorldSavedData {
         String oldName = team.getName().toLowerCase();
         this.skyblocks.remove(oldName);
         this.skyblockPositions.remove(oldName);
+        this.unindexTeam(oldName);
 
         team.setName(name);
         this.skyblocks.put(name.toLowerCase(), team);
         this.skyblockPositions.put(name.toLowerCase(), team.getIsland());
+        this.indexTeam(team);
+        this.reserveName(name);
 
         this.markDirty();
     }
 
+    // Published at most once per tick, so creating many islands in one tick copies the map only once
+    private void publishIslandIndex() {
+        if (this.islandIndexStale) {
+            this.islandIndex = Long2ObjectMaps.unmodifiable(new Long2ObjectOpenHashMap<>(this.islands));
+            this.islandIndexStale = false;
+        }
+    }
+
+    // The server thread sees changes directly, other threads get the state from the end of the last tick
+    private Long2ObjectMap<Team> getIslands() {
+        return this.world == null || this.world.getServer().isOnExecutionThread() ? this.islands : this.islandIndex;
+    }
+
+    // Spawn is never suggested, so it's not part of the indexes
+    private void indexTeam(Team team) {
+        if (team.getName().equalsIgnoreCase("spawn")) {
+            return;
+        }
+
+        this.teamIndex.add(team);
+        if (team.allowsVisits()) {
+            this.visitableTeamIndex.add(team);
+        } else {
+            this.visitableTeamIndex.remove(team.getName());
+        }
+    }
+
+    private void unindexTeam(String name) {
+        this.teamIndex.remove(name);
+        this.visitableTeamIndex.remove(name);
+    }
+
+    public void onVisitsChanged(Team team) {
+        if (this.getTeam(team.getName()) == team) {
+            this.indexTeam(team);
+        }
+    }
+
+    public TeamNameIndex getTeamIndex() {
+        return this.teamIndex;
+    }
+
+    public TeamNameIndex getVisitableTeamIndex() {
+        return this.visitableTeamIndex;
+    }
+
     public Set<BlockPos> getPossibleSpawns(IslandPos pos) {
-        if (!this.skyblockPositions.containsValue(pos)) {
-            return initialPossibleSpawns(pos.getCenter());
+        Team team = this.getTeamFromIsland(pos);
+        if (team == null) {
+            return initialPossibleSpawns(pos.getCenter(), TemplateLoader.getTemplate(TemplateLoader.DEFAULT));
         }
 
-        return this.skyblocks.get(this.skyblockPositions.inverse().get(pos)).getPossibleSpawns();
+        return team.getPossibleSpawns();
     }
 
-    public static Set<BlockPos> initialPossibleSpawns(BlockPos center) {
-        Set<BlockPos> positions = new HashSet<>();
-        for (BlockPos pos : TemplateLoader.SPAWNS) {
-            positions.add(center.add(pos.toImmutable()));
+    public static Set<BlockPos> initialPossibleSpawns(BlockPos center, IslandTemplate template) {
+        Set<BlockPos> positions = new HashSet<>(template.getSpawns().size() * 2);
+        for (BlockPos pos : template.getSpawns()) {
+            positions.add(center.add(pos));
         }
         return positions;
     }
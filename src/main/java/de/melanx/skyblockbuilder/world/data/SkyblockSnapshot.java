@@ -0,0 +1,132 @@
+package de.melanx.skyblockbuilder.world.data;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import de.melanx.skyblockbuilder.world.IslandPos;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.BlockPos;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/*
+ * Immutable view of the teams, published by SkyblockSavedData at the end of a server tick
+ * in which something changed. Can be read from any thread without locking, e.g. chunk generators
+ * or the metrics exporter. The server thread itself should keep using SkyblockSavedData.
+ */
+public final class SkyblockSnapshot {
+
+    public static final SkyblockSnapshot EMPTY = new SkyblockSnapshot(0, ImmutableMap.of(), Long2ObjectMaps.emptyMap(), ImmutableMap.of(), 0);
+
+    private final long version;
+    private final Map<String, TeamSnapshot> teams;
+    private final Long2ObjectMap<TeamSnapshot> islands;
+    private final Map<UUID, TeamSnapshot> playerTeams;
+    private final int inviteCount;
+
+    private SkyblockSnapshot(long version, Map<String, TeamSnapshot> teams, Long2ObjectMap<TeamSnapshot> islands, Map<UUID, TeamSnapshot> playerTeams, int inviteCount) {
+        this.version = version;
+        this.teams = teams;
+        this.islands = islands;
+        this.playerTeams = playerTeams;
+        this.inviteCount = inviteCount;
+    }
+
+    static SkyblockSnapshot of(long version, Collection<TeamSnapshot> teams, int inviteCount) {
+        ImmutableMap.Builder<String, TeamSnapshot> byName = ImmutableMap.builder();
+        Long2ObjectOpenHashMap<TeamSnapshot> islands = new Long2ObjectOpenHashMap<>(teams.size());
+        Map<UUID, TeamSnapshot> playerTeams = new HashMap<>();
+        for (TeamSnapshot team : teams) {
+            byName.put(team.getName().toLowerCase(), team);
+            islands.put(team.getIsland().toLong(), team);
+            if (!team.isSpawn()) {
+                for (UUID player : team.getPlayers()) {
+                    playerTeams.put(player, team);
+                }
+            }
+        }
+
+        return new SkyblockSnapshot(version, byName.build(), Long2ObjectMaps.unmodifiable(islands), ImmutableMap.copyOf(playerTeams), inviteCount);
+    }
+
+    // Increases with every published snapshot, can be used to cache derived data
+    public long getVersion() {
+        return this.version;
+    }
+
+    public Collection<TeamSnapshot> getTeams() {
+        return this.teams.values();
+    }
+
+    @Nullable
+    public TeamSnapshot getTeam(String name) {
+        return this.teams.get(name.toLowerCase());
+    }
+
+    @Nullable
+    public TeamSnapshot getTeamFromIsland(IslandPos island) {
+        return this.islands.get(island.toLong());
+    }
+
+    @Nullable
+    public TeamSnapshot getTeamAt(BlockPos pos) {
+        return this.islands.get(IslandPos.toLong(IslandPos.toIslandCoord(pos.getX()), IslandPos.toIslandCoord(pos.getZ())));
+    }
+
+    // Spawn doesn't count as a team here, same as SkyblockSavedData#getTeamFromPlayer
+    @Nullable
+    public TeamSnapshot getTeamFromPlayer(UUID player) {
+        return this.playerTeams.get(player);
+    }
+
+    public int getInviteCount() {
+        return this.inviteCount;
+    }
+
+    public static final class TeamSnapshot {
+
+        private final String name;
+        private final IslandPos island;
+        private final Set<UUID> players;
+        private final Set<BlockPos> possibleSpawns;
+        private final boolean allowVisits;
+
+        public TeamSnapshot(String name, IslandPos island, Collection<UUID> players, Collection<BlockPos> possibleSpawns, boolean allowVisits) {
+            this.name = name;
+            this.island = island;
+            this.players = ImmutableSet.copyOf(players);
+            this.possibleSpawns = ImmutableSet.copyOf(possibleSpawns);
+            this.allowVisits = allowVisits;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public IslandPos getIsland() {
+            return this.island;
+        }
+
+        public Set<UUID> getPlayers() {
+            return this.players;
+        }
+
+        public Set<BlockPos> getPossibleSpawns() {
+            return this.possibleSpawns;
+        }
+
+        public boolean allowsVisits() {
+            return this.allowVisits;
+        }
+
+        public boolean isSpawn() {
+            return this.name.equalsIgnoreCase("spawn");
+        }
+    }
+}
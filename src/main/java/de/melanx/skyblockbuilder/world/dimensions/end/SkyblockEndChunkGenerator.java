@@ -3,6 +3,8 @@ package de.melanx.skyblockbuilder.world.dimensions.end;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import de.melanx.skyblockbuilder.ConfigHandler;
+import de.melanx.skyblockbuilder.metrics.Metrics;
+import de.melanx.skyblockbuilder.profiling.FlightRecorder;
 import de.melanx.skyblockbuilder.SkyblockBuilder;
 import de.melanx.skyblockbuilder.util.WorldTypeUtil;
 import net.minecraft.block.BlockState;
@@ -71,7 +73,11 @@ public class SkyblockEndChunkGenerator extends ChunkGenerator {
     @Override
     public void generateSurface(@Nonnull WorldGenRegion region, @Nonnull IChunk chunk) {
         if (ConfigHandler.defaultEndIsland.get()) {
+            long start = System.nanoTime();
+            Object event = FlightRecorder.startGeneratorStage();
             this.parent.generateSurface(region, chunk);
+            FlightRecorder.finishGeneratorStage(event, "end", "surface", chunk.getPos().x, chunk.getPos().z);
+            Metrics.END_SURFACE.observeSince(start);
             return;
         }
 
@@ -84,7 +90,11 @@ public class SkyblockEndChunkGenerator extends ChunkGenerator {
     @Override
     public void func_230352_b_(@Nonnull IWorld world, @Nonnull StructureManager manager, @Nonnull IChunk chunk) {
         if (ConfigHandler.defaultEndIsland.get()) {
+            long start = System.nanoTime();
+            Object event = FlightRecorder.startGeneratorStage();
             this.parent.func_230352_b_(world, manager, chunk);
+            FlightRecorder.finishGeneratorStage(event, "end", "noise", chunk.getPos().x, chunk.getPos().z);
+            Metrics.END_NOISE.observeSince(start);
         }
     }
 
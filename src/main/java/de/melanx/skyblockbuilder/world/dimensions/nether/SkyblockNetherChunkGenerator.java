@@ -3,6 +3,8 @@ package de.melanx.skyblockbuilder.world.dimensions.nether;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import de.melanx.skyblockbuilder.ConfigHandler;
+import de.melanx.skyblockbuilder.metrics.Metrics;
+import de.melanx.skyblockbuilder.profiling.FlightRecorder;
 import de.melanx.skyblockbuilder.SkyblockBuilder;
 import de.melanx.skyblockbuilder.util.WorldTypeUtil;
 import net.minecraft.block.BlockState;
@@ -86,7 +88,11 @@ public class SkyblockNetherChunkGenerator extends ChunkGenerator {
     @Override
     public void func_230351_a_(@Nonnull WorldGenRegion region, @Nonnull StructureManager manager) {
         if (ConfigHandler.netherStructures.get()) {
+            long start = System.nanoTime();
+            Object event = FlightRecorder.startGeneratorStage();
             super.func_230351_a_(region, manager);
+            FlightRecorder.finishGeneratorStage(event, "nether", "decoration", region.getMainChunkX(), region.getMainChunkZ());
+            Metrics.NETHER_DECORATION.observeSince(start);
         }
     }
 
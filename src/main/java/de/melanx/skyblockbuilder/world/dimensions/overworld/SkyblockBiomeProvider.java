@@ -74,7 +74,12 @@ public class SkyblockBiomeProvider extends BiomeProvider {
             }
             return Objects.requireNonNull(biome);
         } else {
-            return this.parent.getNoiseBiome(((((x << 2) - 4096) % 8192) + 8192) % 8192, y, ((((z << 2) - 4096) % 8192) + 8192) % 8192);
+            return this.parent.getNoiseBiome(foldCoordinate(x), y, foldCoordinate(z));
         }
     }
+
+    // Maps every island to the same biome area, same as floorMod((coord << 2) - 4096, 8192) because 8192 is a power of two
+    public static int foldCoordinate(int coord) {
+        return ((coord << 2) - 4096) & 8191;
+    }
 }
@@ -3,22 +3,28 @@ package de.melanx.skyblockbuilder.world.dimensions.overworld;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import de.melanx.skyblockbuilder.ConfigHandler;
+import de.melanx.skyblockbuilder.metrics.Metrics;
+import de.melanx.skyblockbuilder.profiling.FlightRecorder;
 import de.melanx.skyblockbuilder.SkyblockBuilder;
 import de.melanx.skyblockbuilder.util.WorldTypeUtil;
+import de.melanx.skyblockbuilder.world.IslandPos;
 import net.minecraft.block.BlockState;
 import net.minecraft.client.gui.screen.FlatPresetsScreen;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.registry.DynamicRegistries;
 import net.minecraft.util.registry.Registry;
 import net.minecraft.world.Blockreader;
 import net.minecraft.world.IBlockReader;
+import net.minecraft.world.ISeedReader;
 import net.minecraft.world.IWorld;
 import net.minecraft.world.biome.BiomeManager;
 import net.minecraft.world.biome.provider.BiomeProvider;
 import net.minecraft.world.chunk.IChunk;
 import net.minecraft.world.gen.*;
 import net.minecraft.world.gen.feature.structure.StructureManager;
+import net.minecraft.world.gen.feature.template.TemplateManager;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
@@ -71,7 +77,9 @@ public class SkyblockOverworldChunkGenerator extends ChunkGenerator {
 
     @Override
     public void generateSurface(@Nonnull WorldGenRegion region, @Nonnull IChunk chunk) {
-        if (ConfigHandler.generateSurface.get()) {
+        if (ConfigHandler.generateSurface.get() && isInsideIslands(chunk.getPos())) {
+            long start = System.nanoTime();
+            Object event = FlightRecorder.startGeneratorStage();
             ChunkPos cp = chunk.getPos();
             int xs = cp.getXStart();
             int zs = cp.getZStart();
@@ -93,6 +101,8 @@ public class SkyblockOverworldChunkGenerator extends ChunkGenerator {
                     y++;
                 }
             }
+            FlightRecorder.finishGeneratorStage(event, "overworld", "surface", cp.x, cp.z);
+            Metrics.OVERWORLD_SURFACE.observeSince(start);
         }
     }
 
@@ -121,11 +131,40 @@ public class SkyblockOverworldChunkGenerator extends ChunkGenerator {
 
     @Override
     public void func_230351_a_(@Nonnull WorldGenRegion region, @Nonnull StructureManager manager) {
-        if (ConfigHandler.overworldStructures.get()) {
+        if (ConfigHandler.overworldStructures.get() && isInsideIslands(new ChunkPos(region.getMainChunkX(), region.getMainChunkZ()))) {
+            long start = System.nanoTime();
+            Object event = FlightRecorder.startGeneratorStage();
             super.func_230351_a_(region, manager);
+            FlightRecorder.finishGeneratorStage(event, "overworld", "decoration", region.getMainChunkX(), region.getMainChunkZ());
+            Metrics.OVERWORLD_DECORATION.observeSince(start);
+        }
+    }
+
+    // No structure starts outside of the islands, these chunks are never decorated anyway
+    @Override
+    public void func_242707_a(@Nonnull DynamicRegistries registries, @Nonnull StructureManager manager, @Nonnull IChunk chunk, @Nonnull TemplateManager templates, long seed) {
+        if (isInsideIslands(chunk.getPos())) {
+            super.func_242707_a(registries, manager, chunk, templates, seed);
         }
     }
 
+    // Outside of the islands there's nothing to search for structure starts
+    @Override
+    public void func_235953_a_(@Nonnull ISeedReader world, @Nonnull StructureManager manager, @Nonnull IChunk chunk) {
+        if (isInsideIslands(chunk.getPos())) {
+            super.func_235953_a_(world, manager, chunk);
+        }
+    }
+
+    /*
+     * With island borders, chunks outside of every island stay empty. They are still created and saved
+     * when they're in view distance, vanilla needs a chunk instance for every loaded position, but all
+     * generation stages which could cost anything are skipped for them.
+     */
+    private static boolean isInsideIslands(ChunkPos chunk) {
+        return !ConfigHandler.islandBorder.get() || IslandPos.isWithinRadius(chunk, ConfigHandler.islandRadius.get());
+    }
+
     @Nonnull
     @Override
     public IBlockReader func_230348_a_(int posX, int posY) {
@@ -0,0 +1,89 @@
+package de.melanx.skyblockbuilder.world.data;
+
+import com.electronwill.nightconfig.core.CommentedConfig;
+import de.melanx.skyblockbuilder.ConfigHandler;
+import de.melanx.skyblockbuilder.util.NameGenerator;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.util.registry.Bootstrap;
+import net.minecraftforge.fml.loading.FMLPaths;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Names chosen manually which the generator would produce later must never be handed out,
+ * also after the saved data was written and read again. The saved data has no world, so the seed is 0.
+ */
+public class NameReservationTest {
+
+    private static final int NAMES = 1000;
+
+    @BeforeAll
+    public static void setup() {
+        FMLPaths.loadAbsolutePaths(Paths.get("").toAbsolutePath());
+        Bootstrap.register();
+        ConfigHandler.COMMON_CONFIG.setConfig(CommentedConfig.inMemory());
+    }
+
+    @Test
+    public void createdNameIsSkippedAfterReload() {
+        SkyblockSavedData data = new SkyblockSavedData(null);
+        data.create("spawn");
+        String reserved = NameGenerator.permutedName(0, 5);
+        data.create(reserved);
+
+        SkyblockSavedData loaded = reload(data);
+        assertSkipped(loaded, reserved);
+    }
+
+    @Test
+    public void renamedNameIsSkippedAfterReload() {
+        SkyblockSavedData data = new SkyblockSavedData(null);
+        data.create("spawn");
+        String reserved = NameGenerator.permutedName(0, 3);
+        data.renameTeam(data.create("manual").getRight(), reserved);
+
+        SkyblockSavedData loaded = reload(data);
+        assertSkipped(loaded, reserved);
+    }
+
+    @Test
+    public void generatedNamesAreUniqueAfterReload() {
+        SkyblockSavedData data = new SkyblockSavedData(null);
+        data.create("spawn");
+        for (int i = 0; i < 20; i++) {
+            data.create(NameGenerator.permutedName(0, i * 7 + 2));
+            data.create(data.nextTeamName());
+        }
+
+        SkyblockSavedData loaded = reload(data);
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < NAMES; i++) {
+            String name = loaded.nextTeamName();
+            assertFalse(loaded.teamExists(name), name + " already exists");
+            assertTrue(names.add(name.toLowerCase()), name + " was handed out twice");
+            loaded.create(name);
+        }
+    }
+
+    private static SkyblockSavedData reload(SkyblockSavedData data) {
+        CompoundNBT nbt = data.write(new CompoundNBT());
+        SkyblockSavedData loaded = new SkyblockSavedData(null);
+        loaded.read(nbt);
+        return loaded;
+    }
+
+    private static void assertSkipped(SkyblockSavedData data, String reserved) {
+        assertTrue(data.teamExists(reserved));
+        for (int i = 0; i < NAMES; i++) {
+            String name = data.nextTeamName();
+            assertFalse(name.equalsIgnoreCase(reserved), reserved + " was handed out again");
+        }
+    }
+}